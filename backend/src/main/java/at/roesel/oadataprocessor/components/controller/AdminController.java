@@ -27,7 +27,11 @@ import at.roesel.oadataprocessor.services.PublisherIdentificationService;
 import at.roesel.oadataprocessor.services.PublisherService;
 import at.roesel.oadataprocessor.services.WorkService;
 import at.roesel.oadataprocessor.services.common.SpringBeanMethodInvoker;
+import at.roesel.oadataprocessor.services.crossref.CrossrefSnapshotImporter;
+import at.roesel.oadataprocessor.services.impexp.export.DownloadService;
+import at.roesel.oadataprocessor.services.openalex.OpenAlexSnapshotImporter;
 import at.roesel.oadataprocessor.services.publicationsource.PublicationSourceService;
+import at.roesel.oadataprocessor.services.unpaywall.UnpaywallSnapshotImporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +63,14 @@ public class AdminController {
     @Autowired
     private PublisherService publisherService;
     @Autowired
+    private CrossrefSnapshotImporter crossrefSnapshotImporter;
+    @Autowired
+    private UnpaywallSnapshotImporter unpaywallSnapshotImporter;
+    @Autowired
+    private OpenAlexSnapshotImporter openAlexSnapshotImporter;
+    @Autowired
+    private DownloadService downloadService;
+    @Autowired
     SpringBeanMethodInvoker springBeanMethodInvoker;
 
     public AdminController() {
@@ -118,6 +130,18 @@ public class AdminController {
                 case "clearCache":
                     workService.clearCaches();
                     break;
+                case "importCrossrefSnapshot":
+                    crossrefSnapshotImporter.importSnapshot();
+                    break;
+                case "importUnpaywallSnapshot":
+                    unpaywallSnapshotImporter.importSnapshot();
+                    break;
+                case "importOpenAlexSnapshot":
+                    openAlexSnapshotImporter.importSnapshot();
+                    break;
+                case "exportParquet":
+                    downloadService.exportParquet();
+                    break;
                 default:
                     springBeanMethodInvoker.execute(cmd);
             }
@@ -30,7 +30,7 @@ import at.roesel.oadataprocessor.services.websocket.WebSocketService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -57,6 +57,10 @@ public class DownloadController {
 
     private final MediaType xlsxMediaType = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
 
+    private final MediaType ndjsonMediaType = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MediaType parquetMediaType = MediaType.parseMediaType("application/vnd.apache.parquet");
+
     private final String downloadReadyCommand = "download_ready";
 
     @Autowired
@@ -165,23 +169,18 @@ public class DownloadController {
             useKey = false;
             buildResult = downloadCache.get(request.filter.getCacheKey());
         }
-        String extension = ".xlsx";
-        String reportFileName = "publications" + extension;
         if (useKey && buildResult == null) {
             DownloadService.BuildResult buildResultError = new DownloadService.BuildResult();
             buildResultError.messages.add("Invalid download key");
-            ResponseEntity<MultiValueMap<String, Object>> responseEntity = createResponse(reportFileName, extension, null, buildResultError);
-            result.setResult(responseEntity);
+            result.setResult(createResponse(null, buildResultError));
         } else {
             if (buildResult != null) {
                 // data is available, build the result
-                ResponseEntity<MultiValueMap<String, Object>> responseEntity = createResponse(reportFileName, extension, buildResult.resource, buildResult);
-                result.setResult(responseEntity);
+                setResult(result, buildResult);
             } else {
                 // handleRequest() is used without WebSocket messages, we have to prepare the data
                 prepareDataForDownload(request.filter, request.filter.getCacheKey(), (res) -> {
-                    ResponseEntity<MultiValueMap<String, Object>> responseEntity = createResponse(reportFileName, extension, res.resource, res);
-                    result.setResult(responseEntity);
+                    setResult(result, res);
                 });
             }
         }
@@ -190,8 +189,29 @@ public class DownloadController {
         return result;
     }
 
+    /*
+     * The file of the result is kept until the response is completed,
+     * also if the result is removed from the DownloadCache in the meantime.
+     */
+    private void setResult(DeferredResult<ResponseEntity<MultiValueMap<String, Object>>> result, DownloadService.BuildResult buildResult) {
+        if (!buildResult.acquire()) {
+            DownloadService.BuildResult buildResultError = new DownloadService.BuildResult();
+            buildResultError.messages.add("Download data is no longer available");
+            result.setResult(createResponse(null, buildResultError));
+            return;
+        }
+        result.onCompletion(buildResult::release);
+        result.setResult(createResponse(buildResult.resource, buildResult));
+    }
+
+    // the file name and the media type depend on the format of the result
+    private ResponseEntity<MultiValueMap<String, Object>> createResponse(Resource resource, DownloadService.BuildResult buildResult) {
+        String extension = buildResult.format.getExtension();
+        return createResponse("publications" + extension, extension, resource, buildResult);
+    }
+
     public ResponseEntity<MultiValueMap<String, Object>> createResponse(String reportFileName, String ext,
-                                                                        ByteArrayResource resource,
+                                                                        Resource resource,
                                                                         DownloadService.BuildResult buildResult) {
 
         HttpHeaders headers = new HttpHeaders();
@@ -220,6 +240,14 @@ public class DownloadController {
                 mediaType = xlsxMediaType;
                 break;
             }
+            case ".ndjson": {
+                mediaType = ndjsonMediaType;
+                break;
+            }
+            case ".parquet": {
+                mediaType = parquetMediaType;
+                break;
+            }
             default: {
                 mediaType = MediaType.APPLICATION_XML;
             }
@@ -231,7 +259,7 @@ public class DownloadController {
         partHeaders.setContentDisposition(contentDisposition);
 
         MultiValueMap<String, Object> formData = new LinkedMultiValueMap<>();
-        HttpEntity<ByteArrayResource> fileEntity = new HttpEntity<>(resource, partHeaders);
+        HttpEntity<Resource> fileEntity = new HttpEntity<>(resource, partHeaders);
         formData.add("file", fileEntity);
         if (buildResult != null && buildResult.messages != null) {
             formData.add("msg", buildResult.messages);
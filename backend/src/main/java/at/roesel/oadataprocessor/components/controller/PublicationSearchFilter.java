@@ -67,18 +67,20 @@ public class PublicationSearchFilter {
         public boolean includeMetaSources;
         public boolean includeAuthor;
         public boolean multipleRows; // Output has one row for every publication for every connected institution
+        public String format; // xlsx (default), csv, ndjson or parquet, see DownloadFormat
 
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             ExcelDownloadOptions that = (ExcelDownloadOptions) o;
-            return includePublicationId == that.includePublicationId && includeNativeIds == that.includeNativeIds && includeMetaSources == that.includeMetaSources && includeAuthor == that.includeAuthor && multipleRows == that.multipleRows;
+            return includePublicationId == that.includePublicationId && includeNativeIds == that.includeNativeIds && includeMetaSources == that.includeMetaSources && includeAuthor == that.includeAuthor && multipleRows == that.multipleRows
+                    && Objects.equals(format, that.format);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(includePublicationId, includeNativeIds, includeMetaSources, includeAuthor, multipleRows);
+            return Objects.hash(includePublicationId, includeNativeIds, includeMetaSources, includeAuthor, multipleRows, format);
         }
     }
 }
@@ -22,10 +22,13 @@
 
 package at.roesel.oadataprocessor.config;
 
+import at.roesel.oadataprocessor.persistance.elastic.ElasticClient;
+import at.roesel.oadataprocessor.persistance.elastic.ElasticClientImpl;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class ElasticseachConfiguration implements InitializingBean {
@@ -44,6 +47,12 @@ public class ElasticseachConfiguration implements InitializingBean {
     @Value("${elasticsearch.password:}")
     private String password;
 
+    // maximum number of documents and bytes of a bulk request
+    @Value("${elasticsearch.bulk.size:500}")
+    private int bulkSize;
+    @Value("${elasticsearch.bulk.maxbytes:5242880}")
+    private long bulkMaxBytes;
+
     private ElasticsearchSettings settings;
 
     @Bean
@@ -51,6 +60,16 @@ public class ElasticseachConfiguration implements InitializingBean {
         return settings;
     }
 
+    /*
+     * One client with its connection pool for the whole application, closed on shutdown.
+     * Lazy, so that the application starts without a configured Elasticsearch server.
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public ElasticClient elasticClient() {
+        return new ElasticClientImpl(settings);
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         settings = ElasticsearchSettingsBuilder.anElasticsearchSettings()
@@ -60,6 +79,8 @@ public class ElasticseachConfiguration implements InitializingBean {
                 .withPort(port)
                 .withUser(user)
                 .withPassword(password)
+                .withBulkSize(bulkSize)
+                .withBulkMaxBytes(bulkMaxBytes)
                 .build();
     }
 }
@@ -32,6 +32,10 @@ public class ElasticsearchSettings {
     private String user = "elastic";
     private String password;
 
+    // limits for a single bulk request
+    private int bulkSize = 500;
+    private long bulkMaxBytes = 5 * 1024 * 1024;
+
     public String getHost() {
         return host;
     }
@@ -79,4 +83,20 @@ public class ElasticsearchSettings {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public int getBulkSize() {
+        return bulkSize;
+    }
+
+    public void setBulkSize(int bulkSize) {
+        this.bulkSize = bulkSize;
+    }
+
+    public long getBulkMaxBytes() {
+        return bulkMaxBytes;
+    }
+
+    public void setBulkMaxBytes(long bulkMaxBytes) {
+        this.bulkMaxBytes = bulkMaxBytes;
+    }
 }
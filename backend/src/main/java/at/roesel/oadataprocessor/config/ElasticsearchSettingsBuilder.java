@@ -29,6 +29,8 @@ public final class ElasticsearchSettingsBuilder {
     private String fingerprint;
     private String user;
     private String password;
+    private int bulkSize;
+    private long bulkMaxBytes;
 
     private ElasticsearchSettingsBuilder() {
     }
@@ -67,6 +69,16 @@ public final class ElasticsearchSettingsBuilder {
         return this;
     }
 
+    public ElasticsearchSettingsBuilder withBulkSize(int bulkSize) {
+        this.bulkSize = bulkSize;
+        return this;
+    }
+
+    public ElasticsearchSettingsBuilder withBulkMaxBytes(long bulkMaxBytes) {
+        this.bulkMaxBytes = bulkMaxBytes;
+        return this;
+    }
+
     public ElasticsearchSettings build() {
         ElasticsearchSettings elasticsearchSettings = new ElasticsearchSettings();
         elasticsearchSettings.setHost(host);
@@ -75,6 +87,8 @@ public final class ElasticsearchSettingsBuilder {
         elasticsearchSettings.setFingerprint(fingerprint);
         elasticsearchSettings.setUser(user);
         elasticsearchSettings.setPassword(password);
+        elasticsearchSettings.setBulkSize(bulkSize);
+        elasticsearchSettings.setBulkMaxBytes(bulkMaxBytes);
         return elasticsearchSettings;
     }
 }
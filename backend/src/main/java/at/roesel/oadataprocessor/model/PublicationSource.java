@@ -26,6 +26,10 @@ import at.roesel.common.SystemTime;
 
 import jakarta.persistence.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Objects;
 
 /*
@@ -76,6 +80,10 @@ public class PublicationSource {
     @Column(name = "datatype")
     private String dataType;
 
+    // SHA-256 of the fields compared in isDataEqual, see buildRecordHash
+    @Column(name = "recordhash")
+    private String recordHash;
+
     /*
     0 : not taken over into the publication table
     1 : taken over into the publication table
@@ -198,6 +206,39 @@ public class PublicationSource {
         this.dataType = dataType;
     }
 
+    public String getRecordHash() {
+        return recordHash;
+    }
+
+    public void setRecordHash(String recordHash) {
+        this.recordHash = recordHash;
+    }
+
+    /*
+     * builds a hash of the fields compared in isDataEqual,
+     * if the hashes of two sources are equal, then isDataEqual is true
+     */
+    public String buildRecordHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : new String[]{title, doi, dataType, pubtype, String.valueOf(year), record}) {
+                if (value == null) {
+                    digest.update((byte) 0);
+                } else {
+                    // prefix with the length, so that the borders between the fields are unique
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    digest.update((byte) 1);
+                    digest.update(String.valueOf(bytes.length).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) ':');
+                    digest.update(bytes);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public boolean isDataEqual(PublicationSource source) {
         if (!Objects.equals(getTitle(), source.getTitle())) {
             return false;
@@ -72,6 +72,8 @@ public class CrossrefWork {
     public List<String> issn;
     public List<String> subject;
     public CrossrefPrint published;
+    // time of the last indexing by Crossref
+    public CrossrefDate indexed;
 
 //    public long myCreated;
 //    public long myUpdated;
@@ -25,6 +25,11 @@ package at.roesel.oadataprocessor.model.openapc;
 import at.roesel.common.SystemTime;
 
 import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Objects;
 
 @Entity
@@ -65,6 +70,10 @@ public class OpenApcEntity implements OpenApcRecord {
 
     private long updated;
 
+    // SHA-256 of the imported fields, see buildRecordHash
+    @Column(name = "recordhash")
+    private String recordHash;
+
     @PrePersist
     protected void onCreate() {
         created = SystemTime.currentTimeMillis();
@@ -259,6 +268,42 @@ public class OpenApcEntity implements OpenApcRecord {
         this.ta = ta;
     }
 
+    public String getRecordHash() {
+        return recordHash;
+    }
+
+    public void setRecordHash(String recordHash) {
+        this.recordHash = recordHash;
+    }
+
+    /*
+     * builds a hash of all fields of the OpenAPC data (without created, updated and the hash),
+     * if the hashes of two records are equal, then the data is equal
+     */
+    public String buildRecordHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : new String[]{id, institution, String.valueOf(period), String.valueOf(amount), doi,
+                    String.valueOf(is_hybrid), publisher, journal_full_title, issn, issn_print, issn_electronic, issn_l,
+                    license_ref, String.valueOf(indexed_in_crossref), pmid, pmcid, ut, url, String.valueOf(doaj),
+                    agreement, String.valueOf(ta)}) {
+                if (value == null) {
+                    digest.update((byte) 0);
+                } else {
+                    // prefix with the length, so that the borders between the fields are unique
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    digest.update((byte) 1);
+                    digest.update(String.valueOf(bytes.length).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) ':');
+                    digest.update(bytes);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Transient
     @Override
     public boolean isHybrid() {
@@ -52,6 +52,8 @@ public class UnpaywallResource {
     public List<UpwOaLocation> oa_locations;
     @JsonProperty("z_authors")
     public List<UpwAuthor> zAuthors;
+    // time of the last change of the record by Unpaywall, e.g. 2023-05-17T01:52:29.823044
+    public String updated;
 
 //    public long myCreated;
 //    public long myUpdated;
@@ -25,10 +25,13 @@ package at.roesel.oadataprocessor.persistance;
 import at.roesel.oadataprocessor.model.OpenAlexSource;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface OpenAlexRepository extends CrudRepository<OpenAlexSource, String> {
     Optional<OpenAlexSource> findByDoi(String doi);
+    List<OpenAlexSource> findAllByDoiIn(Collection<String> dois);
 
     Iterable<OpenAlexSource> findAllByDoi(String doi);
     Iterable<OpenAlexSource> findAllByDoiLike(String doi);
@@ -28,6 +28,7 @@ import at.roesel.oadataprocessor.model.ui.PublicationColor;
 import jakarta.persistence.EntityResult;
 import jakarta.persistence.FieldResult;
 import jakarta.persistence.SqlResultSetMapping;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
@@ -35,6 +36,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @SqlResultSetMapping(
@@ -47,6 +49,8 @@ import java.util.List;
                         @FieldResult(name = "value", column = "value")}))
 public interface PublicationRepository extends CrudRepository<Publication, String>, PublicationRepositoryCustom {
     Iterable<Publication> findAllByDoi(String doi);
+    @Query("select distinct pub.doi from Publication pub where pub.doi is not null and pub.doi <> ''")
+    List<String> findAllDois();
     @Query(
             value = "SELECT * FROM publication pub inner join publication_institution pi on pub.id = pi.publicationid WHERE pi.institutionid = ?1",
             nativeQuery = true)
@@ -83,6 +87,25 @@ public interface PublicationRepository extends CrudRepository<Publication, Strin
             nativeQuery = true)
     Page<Publication> findAllEmptyJournalId(Pageable pageable);
 
+    // keyset paging: the next publications after the id of the last publication of the previous page
+    List<Publication> findAllByStatusAndIdGreaterThanOrderByIdAsc(int status, String id, Limit limit);
+
+    List<Publication> findAllByClassificationStatusAndIdGreaterThanOrderByIdAsc(int classification, String id, Limit limit);
+
+    List<Publication> findAllByPublisherIdAndIdGreaterThanOrderByIdAsc(String publisherId, String id, Limit limit);
+
+    @Query("SELECT pub FROM Publication pub WHERE (pub.mainPublisherId is null or pub.mainPublisherId = '') and pub.id > ?1 ORDER BY pub.id")
+    List<Publication> findAllEmptyMainPublisherIdAfter(String id, Limit limit);
+
+    @Query("SELECT pub FROM Publication pub WHERE (pub.journalId is null or pub.journalId = '') and pub.id > ?1 ORDER BY pub.id")
+    List<Publication> findAllEmptyJournalIdAfter(String id, Limit limit);
+
+    // keyset paging by update time, the id makes the order unique for publications with the same update time
+    List<Publication> findAllByStatusAndUpdatedAfterOrderByUpdatedAscIdAsc(int status, long time, Limit limit);
+
+    @Query("SELECT pub FROM Publication pub WHERE pub.status = ?1 and (pub.updated > ?2 or (pub.updated = ?2 and pub.id > ?3)) ORDER BY pub.updated, pub.id")
+    List<Publication> findAllByStatusUpdatedAfter(int status, long time, String id, Limit limit);
+
     List<Publication> findAllByTitleLike(String title);
 
     List<Publication> findAllByTitleHash(int hash);
@@ -106,20 +129,21 @@ public interface PublicationRepository extends CrudRepository<Publication, Strin
     @Query("update Publication pub set pub.comment = ?2 where pub.id = ?1")
     int updateComment(String id, String comment);
 
+    // set the same value for all publications with the given ids
     @Modifying
     @Transactional
-    @Query("update Publication pub set pub.publisherId = ?2, pub.updated =?3 where pub.id = ?1")
-    int updatePublisherId(String id, String publisherId, long updateTime);
+    @Query("update Publication pub set pub.publisherId = ?2, pub.updated =?3 where pub.id in ?1")
+    int updatePublisherIds(Collection<String> ids, String publisherId, long updateTime);
 
     @Modifying
     @Transactional
-    @Query("update Publication pub set pub.mainPublisherId = ?2, pub.updated =?3 where pub.id = ?1")
-    int updateMainPublisherId(String id, String publisherId, long updateTime);
+    @Query("update Publication pub set pub.mainPublisherId = ?2, pub.updated =?3 where pub.id in ?1")
+    int updateMainPublisherIds(Collection<String> ids, String publisherId, long updateTime);
 
     @Modifying
     @Transactional
-    @Query("update Publication pub set pub.journalId = ?2, pub.updated =?3 where pub.id = ?1")
-    int updateJournalId(String id, String journalId, long updateTime);
+    @Query("update Publication pub set pub.journalId = ?2, pub.updated =?3 where pub.id in ?1")
+    int updateJournalIds(Collection<String> ids, String journalId, long updateTime);
 
     // -uj = UNKNOWN_JOURNAL
     @Modifying
@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.persistance;
 
 import at.roesel.oadataprocessor.model.PublicationSource;
+import at.roesel.oadataprocessor.model.PublicationSourceFingerprint;
 import at.roesel.oadataprocessor.model.PublicationSourceStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,6 +39,9 @@ public interface PublicationSourceRepository extends CrudRepository<PublicationS
         PagingAndSortingRepository<PublicationSource, String> {
     Iterable<PublicationSource> findAllByInstitution(String institution);
     PublicationSource findByInstitutionAndNativeId(String institution, String nativeId);
+    PublicationSourceFingerprint findFingerprintByInstitutionAndNativeId(String institution, String nativeId);
+    List<PublicationSourceFingerprint> findFingerprintsByInstitution(String institution);
+    long countByInstitution(String institution);
     List<PublicationSource> findAllByInstitutionAndNativeId(String institution, String nativeId);
     Iterable<PublicationSource> findAllByInstitutionAndStatus(String institution, PublicationSourceStatus status);
     PublicationSource findByDoi(String doi);
@@ -49,6 +53,9 @@ public interface PublicationSourceRepository extends CrudRepository<PublicationS
 
     Page<PublicationSource> findAllByDoiLike(Pageable pageable, String doiMask);
 
+    @Query("select distinct s.doi from PublicationSource s where s.doi is not null and s.doi <> ''")
+    List<String> findAllDois();
+
     @Query(value="SELECT * from source s join publication_institution PI ON s.id = PI.sourceid WHERE PI.publicationid = :publicationId", nativeQuery=true)
     List<PublicationSource> findSourceByPublicationId(String publicationId);
 
@@ -67,6 +74,11 @@ public interface PublicationSourceRepository extends CrudRepository<PublicationS
     @Query("update PublicationSource source set source.year = ?2 where source.id = ?1")
     int updateYear(String id, int year);
 
+    @Modifying
+    @Transactional
+    @Query("update PublicationSource source set source.recordHash = ?2 where source.id = ?1")
+    int updateRecordHash(String id, String recordHash);
+
     @Query(value="SELECT * FROM source GROUP BY institution, nativeid HAVING COUNT(nativeid) > 1", nativeQuery=true)
     List<PublicationSource> findDuplicatesForNativeId();
 
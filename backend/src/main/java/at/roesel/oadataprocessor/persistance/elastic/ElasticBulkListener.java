@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.persistance.elastic;
+
+import java.util.List;
+
+public interface ElasticBulkListener<T> {
+
+    /*
+     * called for every document that has been rejected by Elasticsearch,
+     * the remaining documents of the bulk request are stored nevertheless
+     */
+    default void onItemError(T item, String id, String reason) {
+        // do nothing
+    }
+
+    /*
+     * called after a bulk request has been processed
+     * @items: all documents of the bulk request, including the rejected ones
+     */
+    default void afterBulk(List<T> items, int errorCount) {
+        // do nothing
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.persistance.elastic;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.util.BinaryData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/*
+ * Collects documents and stores them with bulk requests in Elasticsearch.
+ * A bulk request is sent as soon as either maxItems documents or maxBytes of serialized documents are pending.
+ * Rejected documents are reported to the listener, they do not abort the processing.
+ */
+public class ElasticBulkWriter<T> implements AutoCloseable {
+
+    private final ElasticsearchClient client;
+    private final JsonpMapper mapper;
+    private final String index;
+    private final Function<T, String> idProvider;
+    private final int maxItems;
+    private final long maxBytes;
+    private final ElasticBulkListener<T> listener;
+
+    private final List<T> items = new ArrayList<>();
+    private final List<BulkOperation> operations = new ArrayList<>();
+    private long bytes = 0;
+
+    ElasticBulkWriter(ElasticsearchClient client, JsonpMapper mapper, String index, Function<T, String> idProvider,
+                      int maxItems, long maxBytes, ElasticBulkListener<T> listener) {
+        this.client = client;
+        this.mapper = mapper;
+        this.index = index;
+        this.idProvider = idProvider;
+        this.maxItems = Math.max(1, maxItems);
+        this.maxBytes = maxBytes;
+        this.listener = listener != null ? listener : new ElasticBulkListener<>() {};
+    }
+
+    public void add(T item) {
+        // serialize the document here, so that the size of the request is known before it is sent
+        BinaryData document = BinaryData.of(item, mapper);
+        String id = idProvider.apply(item);
+        operations.add(BulkOperation.of(op -> op
+                .index(idx -> idx
+                        .index(index)
+                        .id(id)
+                        .document(document)
+                )
+        ));
+        items.add(item);
+        bytes += document.size();
+
+        if (items.size() >= maxItems || (maxBytes > 0 && bytes >= maxBytes)) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<T> bulkItems = new ArrayList<>(items);
+        BulkRequest request = new BulkRequest.Builder()
+                .operations(new ArrayList<>(operations))
+                .build();
+        // the pending documents are discarded even if the request fails, the caller decides how to continue
+        items.clear();
+        operations.clear();
+        bytes = 0;
+
+        BulkResponse response;
+        try {
+            response = client.bulk(request);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        int errorCount = 0;
+        if (response.errors()) {
+            // the items of the response have the same order as the operations of the request
+            List<BulkResponseItem> responseItems = response.items();
+            for (int i = 0; i < responseItems.size(); i++) {
+                BulkResponseItem responseItem = responseItems.get(i);
+                if (responseItem.error() != null) {
+                    errorCount++;
+                    listener.onItemError(bulkItems.get(i), responseItem.id(), responseItem.error().reason());
+                }
+            }
+        }
+        listener.afterBulk(bulkItems, errorCount);
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
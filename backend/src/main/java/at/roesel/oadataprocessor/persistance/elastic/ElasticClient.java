@@ -30,7 +30,7 @@ import co.elastic.clients.elasticsearch.indices.CreateIndexResponse;
 import java.util.List;
 import java.util.function.Function;
 
-public interface ElasticClient {
+public interface ElasticClient extends AutoCloseable {
 
     CreateIndexResponse createIndexRequest(CreateIndexRequest createIndexRequest);
 
@@ -41,4 +41,8 @@ public interface ElasticClient {
     <T> List<T> pagedSearch(Class<T> clazz, String index, Query query, int limit, ElasticCursor cursor);
     <T> IndexResponse store(T object, String id, String index);
     <T> void store(List<T> items, Function<T, String> idProvider, String index);
+    <T> ElasticBulkWriter<T> bulkWriter(String index, Function<T, String> idProvider, int maxItems, long maxBytes, ElasticBulkListener<T> listener);
+
+    @Override
+    void close();
 }
@@ -34,6 +34,7 @@ import co.elastic.clients.elasticsearch.core.search.TotalHits;
 import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
 import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
 import co.elastic.clients.elasticsearch.indices.CreateIndexResponse;
+import co.elastic.clients.json.JsonpMapper;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.TransportUtils;
@@ -61,6 +62,8 @@ public class ElasticClientImpl implements ElasticClient {
     private final Logger logger = LoggerFactory.getLogger(ElasticClientImpl.class);
 
     protected final ElasticsearchClient client;
+    private final ElasticsearchTransport transport;
+    private final JsonpMapper jsonpMapper;
 
     public ElasticClientImpl(ElasticsearchSettings settings) {
 
@@ -91,8 +94,9 @@ public class ElasticClientImpl implements ElasticClient {
                 .build();
 
 
-        ElasticsearchTransport transport = new RestClientTransport(
-                restClient, new JacksonJsonpMapper());
+        jsonpMapper = new JacksonJsonpMapper();
+        transport = new RestClientTransport(
+                restClient, jsonpMapper);
 
         client = new ElasticsearchClient(transport);
     }
@@ -291,4 +295,19 @@ public class ElasticClientImpl implements ElasticClient {
 
     }
 
+    @Override
+    public <T> ElasticBulkWriter<T> bulkWriter(String index, Function<T, String> idProvider, int maxItems, long maxBytes, ElasticBulkListener<T> listener) {
+        return new ElasticBulkWriter<>(client, jsonpMapper, index, idProvider, maxItems, maxBytes, listener);
+    }
+
+    @Override
+    public void close() {
+        try {
+            // closes the underlying RestClient and its connection pool
+            transport.close();
+        } catch (IOException e) {
+            logger.warn("Closing the Elasticsearch client failed: {}", e.getMessage());
+        }
+    }
+
 }
@@ -23,9 +23,13 @@
 package at.roesel.oadataprocessor.services;
 
 import at.roesel.oadataprocessor.model.*;
+import at.roesel.oadataprocessor.model.crossref.CrossrefSource;
 import at.roesel.oadataprocessor.model.crossref.CrossrefWork;
 import at.roesel.oadataprocessor.model.doaj.DoajJournal;
+import at.roesel.oadataprocessor.model.doaj.DoajJournalEntity;
+import at.roesel.oadataprocessor.model.openapc.OpenApcRecord;
 import at.roesel.oadataprocessor.model.openalex.OpenAlexWork;
+import at.roesel.oadataprocessor.model.sherpa.Romeo;
 import at.roesel.oadataprocessor.model.ui.PublicationColor;
 import at.roesel.oadataprocessor.model.unpaywall.UnpaywallResource;
 import at.roesel.oadataprocessor.services.crossref.CrossrefService;
@@ -36,15 +40,16 @@ import at.roesel.oadataprocessor.services.sherpa.SherpaService;
 import at.roesel.oadataprocessor.services.unpaywall.UnpaywallService;
 import at.roesel.oadataprocessor.support.DateUtil;
 import at.roesel.oadataprocessor.support.PublicationSupport;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static at.roesel.common.StringSupport.hasValue;
 import static at.roesel.oadataprocessor.support.PublicationSupport.jsonFrom;
@@ -83,6 +88,29 @@ public class ClassifyService {
     private final CoatClassifier coatClassifier = new CoatClassifierDefault();
     private final CoatColorMapper coatColorMapper = new CoatColorMapperImpl();
 
+    // maximum time [ms] for the lookups of a single publication
+    private final long lookupTimeout;
+
+    // executor for the concurrent lookups in buildClassificationData, null if the lookups run sequentially
+    private final ExecutorService lookupExecutor;
+
+    public ClassifyService(@Value("${classify.lookup.threads:6}") int lookupThreads,
+                           @Value("${classify.lookup.timeout:120000}") long lookupTimeout) {
+        this.lookupTimeout = lookupTimeout;
+        if (lookupThreads > 1) {
+            lookupExecutor = Executors.newFixedThreadPool(lookupThreads);
+        } else {
+            lookupExecutor = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdownNow();
+        }
+    }
+
     public Coat classifyCoat(ClassificationData classificationData) {
         Coat coat = coatClassifier.classify(classificationData);
         coat.setColorUpw(classificationData.colorUpw);
@@ -122,17 +150,63 @@ public class ClassifyService {
             return classificationData;
         }
 
-        // Crossref
-        CrossrefWork crossrefWork = crossrefService.getCrossrefWork(doi);
+        LookupResults lookups;
+        if (lookupExecutor != null) {
+            lookups = lookupConcurrently(doi);
+        } else {
+            lookups = lookupSequentially(doi);
+        }
+
+        // Crossref and Doaj
+        CrossrefWork crossrefWork = lookups.crossrefWork;
+        setValuesFromCrossrefAndDoaj(classificationData, crossrefWork, lookups.doajRecord);
+
+        // Unpaywall
+        classificationData.setValuesFromUnpaywall(lookups.unpaywallResource);
+
+        // OpenAPC
+        classificationData.setValuesFromApc(lookups.apcRecord);
+
+        if (crossrefWork != null) {
+            if (explain) {
+                classificationData.addExplanation("Search Sherpa/Romeao record with issn(s): " + crossrefWork.getIssns());
+            }
+            classificationData.setValuesFromRomeo(lookups.romeo);
+        }
+
+        if (isOpenAlexLicenceNeeded(classificationData)) {
+            OpenAlexWork openAlexWork = openAlexService.getWork(doi);
+            if (openAlexWork != null) {
+                if (explain) {
+                    classificationData.getExplanation().openalex = openAlexWork;
+                    classificationData.addExplanation(String.format("** Found record for '%s' in OpenAlex", doi));
+                }
+                classificationData.openAlexLicence = openAlexWork.licence();
+            } else {
+                if (explain) {
+                    classificationData.addExplanation(String.format("** No record for '%s' in OpenAlex", doi));
+                }
+            }
+            if (explain) {
+                classificationData.addExplanation("");
+            }
+        }
+
+        classificationData.prepare();
+
+        return classificationData;
+    }
+
+    // also used by prefetchOpenAlexWorks, so that the prefetch selects the works like the classification
+    private void setValuesFromCrossrefAndDoaj(ClassificationData classificationData, CrossrefWork crossrefWork, DoajJournal doajRecord) {
         classificationData.setValuesFromCrossref(crossrefWork);
 
         // Doaj
         if (crossrefWork != null) {
             List<String> issns = crossrefWork.getIssns();
-            if (explain) {
+            if (classificationData.isExplain()) {
                 classificationData.addExplanation("Suche Doaj record mit issn(s): " + issns);
             }
-            DoajJournal doajRecord = doajService.searchForDoaj(issns);
             if (doajRecord != null) {
                 // check if the journal was included in DOAJ at the time of publication
                 if (doajRecord.getEndDate() > 0 && doajRecord.getEndDate() < DoajJournal.MAX_DATE) {
@@ -143,7 +217,7 @@ public class ClassifyService {
                         classificationData.setValuesFromDoaj(doajRecord);
                     } else {
                         logger.debug(String.format("doi = %s, issn = %s found in Doaj but publicationdate %d after %d",
-                                doi, issns, publishedDate, doajRecord.getEndDate()));
+                                classificationData.doi, issns, publishedDate, doajRecord.getEndDate()));
                         if (classificationData.isExplain()) {
                             DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd.MM.yyyy");
                             classificationData.addExplanation(String.format("issn(s): %s gefunden in doaj, aber nach der OA-Gültigkeit %s",
@@ -158,61 +232,171 @@ public class ClassifyService {
                 }
             }
         }
+    }
 
-        // Unpaywall
-        UnpaywallResource unpaywallResource = unpaywallService.getResource(doi);
-        classificationData.setValuesFromUnpaywall(unpaywallResource);
+    // if neither Crossref nor DOAJ delivers a licence, it is searched in OpenAlex
+    private static boolean isOpenAlexLicenceNeeded(ClassificationData classificationData) {
+        return classificationData.crossrefLicence == null && classificationData.doajLicence == null;
+    }
 
-        // OpenAPC
-        classificationData.setValuesFromApc(openApcService.searchByDoi(doi));
+    // results of the independent lookups for a doi
+    private static class LookupResults {
+        CrossrefWork crossrefWork;
+        DoajJournal doajRecord;
+        UnpaywallResource unpaywallResource;
+        OpenApcRecord apcRecord;
+        Romeo romeo;
+    }
 
-        if (crossrefWork != null) {
-            if (explain) {
-                classificationData.addExplanation("Search Sherpa/Romeao record with issn(s): " + crossrefWork.getIssns());
+    private LookupResults lookupSequentially(String doi) {
+        LookupResults lookups = new LookupResults();
+        lookups.crossrefWork = crossrefService.getCrossrefWork(doi);
+        if (lookups.crossrefWork != null) {
+            lookups.doajRecord = doajService.searchForDoaj(lookups.crossrefWork.getIssns());
+        }
+        lookups.unpaywallResource = unpaywallService.getResource(doi);
+        lookups.apcRecord = openApcService.searchByDoi(doi);
+        if (lookups.crossrefWork != null) {
+            lookups.romeo = sherpaService.romeoForIssns(lookups.crossrefWork.getIssns());
+        }
+        return lookups;
+    }
+
+    /*
+     * Crossref, Unpaywall and OpenAPC are queried at the same time,
+     * Doaj and Sherpa/Romeo as soon as the issns from Crossref are known.
+     * Throws a RuntimeException if the lookups take longer than lookupTimeout.
+     */
+    private LookupResults lookupConcurrently(String doi) {
+        CompletableFuture<CrossrefWork> crossrefFuture = CompletableFuture.supplyAsync(
+                () -> crossrefService.getCrossrefWork(doi), lookupExecutor);
+        CompletableFuture<UnpaywallResource> unpaywallFuture = CompletableFuture.supplyAsync(
+                () -> unpaywallService.getResource(doi), lookupExecutor);
+        CompletableFuture<OpenApcRecord> apcFuture = CompletableFuture.supplyAsync(
+                () -> openApcService.searchByDoi(doi), lookupExecutor);
+        CompletableFuture<DoajJournal> doajFuture = crossrefFuture.thenApplyAsync(
+                work -> work != null ? doajService.searchForDoaj(work.getIssns()) : null, lookupExecutor);
+        CompletableFuture<Romeo> romeoFuture = crossrefFuture.thenApplyAsync(
+                work -> work != null ? sherpaService.romeoForIssns(work.getIssns()) : null, lookupExecutor);
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(crossrefFuture, unpaywallFuture, apcFuture, doajFuture, romeoFuture);
+        try {
+            all.get(lookupTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // cancel the lookups, which have not started yet, running requests are not interrupted
+            crossrefFuture.cancel(true);
+            unpaywallFuture.cancel(true);
+            apcFuture.cancel(true);
+            doajFuture.cancel(true);
+            romeoFuture.cancel(true);
+            throw new RuntimeException(String.format("lookups for doi %s not finished after %d ms", doi, lookupTimeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
-            classificationData.setValuesFromRomeo(sherpaService.romeoForIssns(crossrefWork.getIssns()));
+            throw new RuntimeException(e.getCause());
         }
 
-        if (classificationData.crossrefLicence == null && classificationData.doajLicence == null ) {
-            // if we found no licence yet, we try to get one from OpenAlex
-            OpenAlexWork openAlexWork = openAlexService.getWork(doi);
-            if (openAlexWork != null) {
-                if (explain) {
-                    classificationData.getExplanation().openalex = openAlexWork;
-                    classificationData.addExplanation(String.format("** Found record for '%s' in OpenAlex", doi));
+        LookupResults lookups = new LookupResults();
+        lookups.crossrefWork = crossrefFuture.join();
+        lookups.doajRecord = doajFuture.join();
+        lookups.unpaywallResource = unpaywallFuture.join();
+        lookups.apcRecord = apcFuture.join();
+        lookups.romeo = romeoFuture.join();
+        return lookups;
+    }
+
+    /*
+     * The records of a page of publications are prefetched before the classification of the page.
+     * Only the Crossref records, which are already in the database, are used to select them.
+     */
+    private void prefetchLookupData(List<Publication> publications) {
+        Set<String> dois = new HashSet<>();
+        for (Publication publication : publications) {
+            if (hasValue(publication.getDoi())) {
+                dois.add(publication.getDoi());
+            }
+        }
+        // Crossref record by doi
+        Map<String, CrossrefWork> crossrefWorks = new HashMap<>();
+        if (!dois.isEmpty()) {
+            for (CrossrefSource crossrefSource : crossrefService.readCrossrefSourcesfromDB(dois)) {
+                CrossrefWork crossrefWork = crossrefSource.getRecord();
+                if (crossrefSource.getStatus().ok() && CrossrefWork.isValid(crossrefWork)) {
+                    crossrefWorks.put(crossrefSource.getDoi(), crossrefWork);
                 }
-                classificationData.openAlexLicence = openAlexWork.licence();
-            } else {
-                if (explain) {
-                    classificationData.addExplanation(String.format("** No record for '%s' in OpenAlex", doi));
+            }
+        }
+        prefetchRomeoRecords(crossrefWorks.values());
+        prefetchOpenAlexWorks(crossrefWorks);
+    }
+
+    /*
+     * buildClassificationData queries OpenAlex only for publications without licence from Crossref and DOAJ.
+     * These OpenAlex works are fetched for a whole page with grouped requests. The decision uses only
+     * the stored Crossref and DOAJ records, so that the page does not wait for requests to DOAJ.
+     */
+    private void prefetchOpenAlexWorks(Map<String, CrossrefWork> crossrefWorks) {
+        List<String> dois = new ArrayList<>();
+        try {
+            for (Map.Entry<String, CrossrefWork> entry : crossrefWorks.entrySet()) {
+                CrossrefWork crossrefWork = entry.getValue();
+                DoajJournalEntity doajRecord = null;
+                if (!crossrefWork.getIssns().isEmpty()) {
+                    doajRecord = doajService.searchDatabaseForDoaj(crossrefWork.getIssns());
+                    if (doajRecord != null && doajRecord.isDeleted()) {
+                        doajRecord = null;
+                    }
+                }
+                ClassificationData classificationData = new ClassificationData(entry.getKey());
+                setValuesFromCrossrefAndDoaj(classificationData, crossrefWork, doajRecord);
+                if (isOpenAlexLicenceNeeded(classificationData)) {
+                    dois.add(entry.getKey());
                 }
             }
-            if (explain) {
-                classificationData.addExplanation("");
+            if (!dois.isEmpty()) {
+                openAlexService.getWorks(dois);
             }
+        } catch (Exception e) {
+            // getWork queries the works again during the classification
+            logger.error("prefetch of OpenAlex works failed: {}", e.getMessage());
         }
+    }
 
-        classificationData.prepare();
-
-        return classificationData;
+    /*
+     * The Sherpa/Romeo records of the journals of a page of publications are resolved together,
+     * so that buildClassificationData finds them in the cache of the SherpaService.
+     * The issns are taken from Crossref in their order, like in buildClassificationData.
+     */
+    private void prefetchRomeoRecords(Collection<CrossrefWork> crossrefWorks) {
+        Set<List<String>> journalIssns = new HashSet<>();
+        for (CrossrefWork crossrefWork : crossrefWorks) {
+            List<String> issns = crossrefWork.getIssns();
+            if (!issns.isEmpty()) {
+                journalIssns.add(issns);
+            }
+        }
+        if (!journalIssns.isEmpty()) {
+            try {
+                sherpaService.romeoForJournals(journalIssns);
+            } catch (Exception e) {
+                // romeoForIssns queries the records again during the classification
+                logger.error("prefetch of Sherpa/Romeo records failed: {}", e.getMessage());
+            }
+        }
     }
 
     public void classifyAllPublications() {
 
         logger.info("Classify OA status of publications");
         final int[] count = {0};
-        publicationService.visitAll(0,
-                new PublicationProvider() {
-                    @Override
-                    public Page<Publication> provide(PageRequest pageRequest) {
-                        return publicationService.findAllByClassificationStatus(pageRequest, Publication.CLASSIFICATION_TODO);
-                    }
-
-                    @Override
-                    public boolean isIncrementPage() {
-                        return false;
-                    }
-                },
+        publicationService.visitAll(
+                (lastPublication, limit) -> publicationService.findAllByClassificationStatusAfter(
+                        PublicationProvider.lastId(lastPublication), Publication.CLASSIFICATION_TODO, limit),
+                this::prefetchLookupData,
                 publication -> {
                     count[0]++;
 
@@ -223,7 +407,14 @@ public class ClassifyService {
 
                     logger.debug("{}\t{}\t{}", count[0], publication.getId(), publication.getTitle());
 
-                    ClassificationData classificationData = buildClassificationData(publication.getDoi(), false);
+                    ClassificationData classificationData;
+                    try {
+                        classificationData = buildClassificationData(publication.getDoi(), false);
+                    } catch (Exception e) {
+                        // the status is not changed, so the publication is classified again with the next run
+                        logger.error("classification of publication {} failed: {}", publication.getId(), e.getMessage());
+                        return;
+                    }
                     Coat coat = classifyCoat(classificationData);
 
                     publication.setCoat(coat.buildString());
@@ -29,8 +29,9 @@ import at.roesel.oadataprocessor.config.ElasticsearchSettings;
 import at.roesel.oadataprocessor.model.*;
 import at.roesel.oadataprocessor.persistance.ElasticLogRepository;
 import at.roesel.oadataprocessor.persistance.PublicationRepository;
+import at.roesel.oadataprocessor.persistance.elastic.ElasticBulkListener;
+import at.roesel.oadataprocessor.persistance.elastic.ElasticBulkWriter;
 import at.roesel.oadataprocessor.persistance.elastic.ElasticClient;
-import at.roesel.oadataprocessor.persistance.elastic.ElasticClientImpl;
 import at.roesel.oadataprocessor.persistance.elastic.ElasticCursor;
 import at.roesel.oadataprocessor.persistance.elastic.ElasticResultHandler;
 import at.roesel.oadataprocessor.services.publisher.PublisherMap;
@@ -44,10 +45,10 @@ import co.elastic.clients.util.ObjectBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -72,6 +73,11 @@ public class PublicationAccessService {
     @Autowired
     private ElasticsearchSettings elasticsearchSettings;
 
+    // shared client, created on first use
+    @Autowired
+    @Lazy
+    private ElasticClient elasticClient;
+
     @Autowired
     private ElasticLogRepository elasticLogRepository;
 
@@ -104,8 +110,6 @@ public class PublicationAccessService {
         }
         long lastStartTime = latestUpdateTime;
 
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
-
         PublicationFlattener publicationFlattener = createPublicationFlattener();
 
         // transfer publications that have an update timestamp after the timestamp of the last transfer
@@ -115,29 +119,51 @@ public class PublicationAccessService {
         AtomicLong lastPublicationUpdateTime = new AtomicLong(lastStartTime);
         AtomicInteger count = new AtomicInteger();
         AtomicInteger updateCount = new AtomicInteger();
+        AtomicInteger errorCount = new AtomicInteger();
+        // update time of the last publication handed over to the bulk writer
+        AtomicLong pendingPublicationUpdateTime = new AtomicLong(lastStartTime);
+        // update times of the publications in the pending bulk request and the earliest one of a rejected publication
+        Map<String, Long> pendingUpdateTimes = new HashMap<>();
+        AtomicLong firstRejectedUpdateTime = new AtomicLong(Long.MAX_VALUE);
         boolean[] stop = {false};   // used for debugging to be able to stop the run
-        try {
-            publicationService.visitAll(0,
-                    new PublicationProvider() {
-                        @Override
-                        public Page<Publication> provide(PageRequest pageRequest) {
-                            return publicationRepository.findAllByStatusAndUpdatedAfterOrderByUpdatedAsc(pageRequest, 0, lastStartTime);
+        ElasticBulkWriter<PublicationFlat> bulkWriter = elasticClient.bulkWriter(appSettings.getElasticPublicationIndex(),
+                PublicationFlat::getId, elasticsearchSettings.getBulkSize(), elasticsearchSettings.getBulkMaxBytes(),
+                new ElasticBulkListener<>() {
+                    @Override
+                    public void onItemError(PublicationFlat item, String id, String reason) {
+                        errorCount.getAndIncrement();
+                        Long updated = pendingUpdateTimes.get(id);
+                        if (updated != null) {
+                            firstRejectedUpdateTime.accumulateAndGet(updated, Math::min);
                         }
-
-                        @Override
-                        public boolean isIncrementPage() {
-                            return true;
+                        logger.error(String.format("Error on storing publicationId = %s, %s", id, reason));
+                    }
+
+                    @Override
+                    public void afterBulk(List<PublicationFlat> items, int bulkErrorCount) {
+                        logger.debug(String.format("Stored %d publications, errors=%d, update=%d", items.size(), bulkErrorCount, pendingPublicationUpdateTime.get()));
+                        // remember the last update time, so that we can start the next run with this time
+                        lastPublicationUpdateTime.set(pendingPublicationUpdateTime.get());
+                        updateCount.getAndAdd(items.size() - bulkErrorCount);
+                        pendingUpdateTimes.clear();
+                    }
+                });
+        try {
+            publicationService.visitAll(
+                    (lastPublication, limit) -> {
+                        // ordered by update time and id, the next page starts after the last publication
+                        if (lastPublication == null) {
+                            return publicationRepository.findAllByStatusAndUpdatedAfterOrderByUpdatedAscIdAsc(0, lastStartTime, limit);
                         }
+                        return publicationRepository.findAllByStatusUpdatedAfter(0, lastPublication.getUpdated(), lastPublication.getId(), limit);
                     },
                     publication -> {
                         count.getAndIncrement();
                         try {
                             PublicationFlat publicationFlat = publicationFlattener.flatten(publication);
-                            IndexResponse response = elasticClient.store(publicationFlat, publication.getId(), appSettings.getElasticPublicationIndex());
-                            logger.debug(String.format("Stored pubId=%s, response=%s, update=%d", publication.getId(), response.result(), publication.getUpdated()));
-                            // remember the last update time, so that we can start the next run with this time
-                            lastPublicationUpdateTime.set(publication.getUpdated());
-                            updateCount.getAndIncrement();
+                            pendingPublicationUpdateTime.set(publication.getUpdated());
+                            pendingUpdateTimes.put(publication.getId(), publication.getUpdated());
+                            bulkWriter.add(publicationFlat);
                             // stop for debugging with a development environment
                             if (stop[0]) {
                                 throw new Exception("stopped");
@@ -147,31 +173,39 @@ public class PublicationAccessService {
                             throw new RuntimeException(msg, e);
                         }
                     });
+            bulkWriter.flush();
+            if (errorCount.get() > 0) {
+                comment = String.format("%d publications could not be stored", errorCount.get());
+            }
         } catch (Exception e) {
             status = -1;
             comment = e.getMessage();
             logger.error(e.getMessage()); // startTime = lastStartTime
         }
         ElasticLog elasticLog = new ElasticLog();
+        long updateTime;
         if (status == 0) {
             // update time for the next run
-            elasticLog.setUpdatetime(startTime);
+            updateTime = startTime;
         } else {
             // In case of an error, we will continue next time from the time of the last written publication.
-            elasticLog.setUpdatetime(lastPublicationUpdateTime.get());
+            updateTime = lastPublicationUpdateTime.get();
+        }
+        if (firstRejectedUpdateTime.get() != Long.MAX_VALUE) {
+            // rejected publications are sent again with the next run, which reads the publications updated after this time
+            updateTime = Math.min(updateTime, firstRejectedUpdateTime.get() - 1);
         }
+        elasticLog.setUpdatetime(updateTime);
         elasticLog.setStartTime(startTime);
         elasticLog.setEndTime(SystemTime.currentTimeMillis());
         elasticLog.setRecords(count.get());
         elasticLog.setComment(comment);
         elasticLog.setStatus(status);
         elasticLogRepository.save(elasticLog);
-        logger.info("Stored {} publications in ElasticSearch", updateCount.get());
+        logger.info("Stored {} publications in ElasticSearch, {} errors", updateCount.get(), errorCount.get());
     }
 
     public IndexResponse storeSinglePublicationInElastic(String id) {
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
-
         PublicationFlattener publicationFlattener = createPublicationFlattener();
 
         Publication publication = publicationService.readById(id);
@@ -208,7 +242,6 @@ public class PublicationAccessService {
     }
 
     public CreateIndexResponse createElasticIndex() {
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
         CreateIndexRequest createIndexRequest = new CreateIndexRequest.Builder()
                 .index(appSettings.getElasticPublicationIndex())
                 .mappings(new TypeMapping.Builder()
@@ -313,7 +346,6 @@ public class PublicationAccessService {
     }
 
     public void readPublicationsFromElastic(PublicationSearchFilter filter, ElasticResultHandler<PublicationFlat> handler) {
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
         elasticClient.search(PublicationFlat.class, appSettings.getElasticPublicationIndex(), buildQueryForFilter(filter), handler);
     }
 
@@ -322,8 +354,6 @@ public class PublicationAccessService {
     }
 
     public List<PublicationFlat> readPublicationsFromElastic(PublicationSearchFilter filter, ElasticCursor cursor, int limit) {
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
-
         try {
             List<PublicationFlat> publications;
             if (cursor == null) {
@@ -341,8 +371,6 @@ public class PublicationAccessService {
     }
 
     public PublicationFlat readPublicationFromElastic(String publicationId) {
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
-
         PublicationFlat publication = elasticClient.readById(PublicationFlat.class, appSettings.getElasticPublicationIndex(), publicationId);
         return publication;
     }
@@ -352,8 +380,6 @@ public class PublicationAccessService {
             return null;
         }
 
-        ElasticClient elasticClient = new ElasticClientImpl(elasticsearchSettings);
-
         PublicationFlat publication = null;
         // do we have a DOI as parameter?
         String doi = DoiSupport.parseDoi(searchId);
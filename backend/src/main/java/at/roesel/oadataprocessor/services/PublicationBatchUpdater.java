@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services;
+
+import at.roesel.common.SystemTime;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Collects updates of a single column of publications and writes them in batches:
+ * one update statement per value for all collected publications with this value.
+ * flush() must be called after the last update.
+ */
+public class PublicationBatchUpdater {
+
+    @FunctionalInterface
+    public interface Update {
+        int update(List<String> ids, String value, long updateTime);
+    }
+
+    private final Update update;
+    private final int batchSize;
+
+    // publication ids per new value
+    private final Map<String, List<String>> pending = new LinkedHashMap<>();
+    private int pendingCount = 0;
+    private int updateCount = 0;
+
+    public PublicationBatchUpdater(Update update, int batchSize) {
+        this.update = update;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void update(String id, String value) {
+        pending.computeIfAbsent(value, k -> new ArrayList<>()).add(id);
+        pendingCount++;
+        if (pendingCount >= batchSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (pendingCount == 0) {
+            return;
+        }
+        long updateTime = SystemTime.currentTimeMillis();
+        for (Map.Entry<String, List<String>> entry : pending.entrySet()) {
+            updateCount += update.update(entry.getValue(), entry.getKey(), updateTime);
+        }
+        pending.clear();
+        pendingCount = 0;
+    }
+
+    // number of updated publications
+    public int getUpdateCount() {
+        return updateCount;
+    }
+}
@@ -35,6 +35,7 @@ import at.roesel.oadataprocessor.services.unpaywall.UnpaywallService;
 import at.roesel.oadataprocessor.support.AuthorComparator;
 import at.roesel.oadataprocessor.support.PublicationSupport;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 
@@ -133,6 +134,33 @@ public class PublicationDataEnhancer {
         return added;
     }
 
+    /*
+     * Queries the external services for the doi like enrichDataInPublication, without changing a publication.
+     * The services store the results in their database tables, so that a following call of
+     * enrichDataInPublication for this doi is answered from the database.
+     * OpenAlex is queried separately for several dois with prefetchOpenAlexData.
+     * Can be called from several threads.
+     * @return true if enrichDataInPublication will query OpenAlex for the doi
+     */
+    public boolean prefetchData(String doi) {
+        if (!hasValue(doi)) {
+            return false;
+        }
+        CrossrefWork crossrefWork = crossrefService.getCrossrefWork(doi);
+        unpaywallService.getResource(doi);
+        // OpenAlex is only queried by enrichDataInPublication if there is a Crossref record
+        return crossrefWork != null;
+    }
+
+    /*
+     * Queries OpenAlex for several dois with grouped requests, the results are stored in the database table.
+     */
+    public void prefetchOpenAlexData(Collection<String> dois) {
+        if (!dois.isEmpty()) {
+            openAlexService.getWorks(dois);
+        }
+    }
+
     /*
      * @return true if data was added
      */
@@ -23,10 +23,22 @@
 package at.roesel.oadataprocessor.services;
 
 import at.roesel.oadataprocessor.model.Publication;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Limit;
 
+import java.util.List;
+
+/*
+ * Delivers the publications for PublicationService.visitAll with keyset paging:
+ * each page starts after the last publication of the previous page, in the order of a unique key (e.g. the id).
+ * So the database does not need to skip an offset, and publications changed by the visitor are neither
+ * read again nor cause other publications to be skipped.
+ */
 public interface PublicationProvider {
-    Page<Publication> provide(PageRequest pageRequest);
-    boolean isIncrementPage();
+    // lastPublication is null for the first page
+    List<Publication> provide(Publication lastPublication, Limit limit);
+
+    // start key for the paging by id
+    static String lastId(Publication lastPublication) {
+        return lastPublication == null ? "" : lastPublication.getId();
+    }
 }
@@ -42,8 +42,9 @@ import org.apache.commons.collections4.IterableUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
@@ -70,9 +71,16 @@ public class PublicationService {
 
     private final Logger logger = LoggerFactory.getLogger(PublicationService.class);
 
+    // number of publications read at once in visitAll
+    private static final int visitPageSize = 500;
+
     @Autowired
     private PublicationRepository publicationRepository;
 
+    // number of collected updates, which are written together by a PublicationBatchUpdater
+    @Value("${publication.update.batchsize:500}")
+    private int updateBatchSize;
+
     @Autowired
     private PublicationTypeService publicationTypeService;
 
@@ -120,6 +128,10 @@ public class PublicationService {
         return publicationRepository.findAllByInstitutionAndClassificationStatus(pageable, institution, classification);
     }
 
+    public List<Publication> findAllByClassificationStatusAfter(String lastId, int classification, Limit limit) {
+        return publicationRepository.findAllByClassificationStatusAndIdGreaterThanOrderByIdAsc(classification, lastId, limit);
+    }
+
     public Page<Publication> findAllByPublisherId(Pageable pageable, String publisherId) {
         return publicationRepository.findAllByPublisherId(pageable, publisherId);
     }
@@ -128,10 +140,18 @@ public class PublicationService {
         return publicationRepository.findAllWithPublisherId(pageable);
     }
 
+    public List<Publication> findAllByPublisherIdAfter(String lastId, String publisherId, Limit limit) {
+        return publicationRepository.findAllByPublisherIdAndIdGreaterThanOrderByIdAsc(publisherId, lastId, limit);
+    }
+
     public Page<Publication> findAllEmptyMainPublisherId(Pageable pageable) {
         return publicationRepository.findAllEmptyMainPublisherId(pageable);
     }
 
+    public List<Publication> findAllEmptyMainPublisherIdAfter(String lastId, Limit limit) {
+        return publicationRepository.findAllEmptyMainPublisherIdAfter(lastId, limit);
+    }
+
     public Page<Publication> findAllByJournalId(Pageable pageable, String journalId) {
         return publicationRepository.findAllByJournalId(pageable, journalId);
     }
@@ -140,45 +160,42 @@ public class PublicationService {
         return publicationRepository.findAllEmptyJournalId(pageable);
     }
 
+    public List<Publication> findAllEmptyJournalIdAfter(String lastId, Limit limit) {
+        return publicationRepository.findAllEmptyJournalIdAfter(lastId, limit);
+    }
+
 
     public int visitAll(Consumer<Publication> visitor) {
-        return visitAll(0, visitor);
+        return visitAll((lastPublication, limit) -> publicationRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(
+                Publication.STATUS_ACTIVE, PublicationProvider.lastId(lastPublication), limit), visitor);
     }
 
-    public int visitAll(int startPage, Consumer<Publication> visitor) {
-        return visitAll(startPage, new PublicationProvider() {
-            @Override
-            public Page<Publication> provide(PageRequest pageRequest) {
-                return publicationRepository.findAllByStatus(pageRequest, Publication.STATUS_ACTIVE);
-            }
-
-            @Override
-            public boolean isIncrementPage() {
-                return true;
-            }
-        }, visitor);
+    public int visitAll(PublicationProvider publicationProvider, Consumer<Publication> visitor) {
+        return visitAll(publicationProvider, null, visitor);
     }
 
-    public int visitAll(int startPage, PublicationProvider publicationProvider, Consumer<Publication> visitor) {
+    /*
+     * pageHandler (optional) receives the publications of each page before they are visited,
+     * e.g. to prefetch the data for the whole page
+     */
+    public int visitAll(PublicationProvider publicationProvider, Consumer<List<Publication>> pageHandler, Consumer<Publication> visitor) {
 
-        int page = startPage;
+        Publication lastPublication = null;
         int count = 0;  // counter for the loop iteration
         while (true) {
-//            logger.debug(String.format("page: %d, count: %d", page, count));
-            PageRequest pageRequest = PageRequest.of(page, 500);
-            Page<Publication> publications = publicationProvider.provide(pageRequest);
+//            logger.debug(String.format("last: %s, count: %d", lastPublication == null ? "" : lastPublication.getId(), count));
+            List<Publication> publications = publicationProvider.provide(lastPublication, Limit.of(visitPageSize));
             if (publications.isEmpty()) {
                 break;
             }
+            if (pageHandler != null) {
+                pageHandler.accept(publications);
+            }
             for (Publication publication : publications) {
                 visitor.accept(publication);
             }
+            lastPublication = publications.get(publications.size() - 1);
             count++;
-            // if the visitor changes the status of the publication, so that provide() is influenced and delivers fewer results
-            // then the page must not be incremented
-            if (publicationProvider.isIncrementPage()) {
-                page++;
-            }
         }
         return count;
     }
@@ -257,16 +274,16 @@ public class PublicationService {
         return publicationRepository.updateComment(id, comment);
     }
 
-    public int updatePublisherId(String id, String publisherId) {
-        return publicationRepository.updatePublisherId(id, publisherId, SystemTime.currentTimeMillis());
+    public PublicationBatchUpdater publisherIdUpdater() {
+        return new PublicationBatchUpdater(publicationRepository::updatePublisherIds, updateBatchSize);
     }
 
-    public int updateMainPublisherId(String id, String publisherId) {
-        return publicationRepository.updateMainPublisherId(id, publisherId, SystemTime.currentTimeMillis());
+    public PublicationBatchUpdater mainPublisherIdUpdater() {
+        return new PublicationBatchUpdater(publicationRepository::updateMainPublisherIds, updateBatchSize);
     }
 
-    public int updateJournalId(String id, String journalId) {
-        return publicationRepository.updateJournalId(id, journalId, SystemTime.currentTimeMillis());
+    public PublicationBatchUpdater journalIdUpdater() {
+        return new PublicationBatchUpdater(publicationRepository::updateJournalIds, updateBatchSize);
     }
 
     public int resetUnknownJournalId() {
@@ -375,7 +392,7 @@ public class PublicationService {
 
         logger.info("Search for DOI in Crossref");
         AtomicInteger count = new AtomicInteger();
-        visitAll(0, publication -> {
+        visitAll(publication -> {
             count.getAndIncrement();
             // already handled ?
             if (publication.getDoiSource() != Publication.DOI_SOURCE_REPOSITORY) {
@@ -422,7 +439,7 @@ public class PublicationService {
 
         logger.info("Check DOIs in publications");
         AtomicInteger count = new AtomicInteger();
-        visitAll(0, publication -> {
+        visitAll(publication -> {
             count.getAndIncrement();
 
             String doi = publication.getDoi();
@@ -34,8 +34,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -98,168 +96,166 @@ public class PublisherIdentificationService {
         AtomicInteger count_identified = new AtomicInteger();
         AtomicInteger count_unidentified = new AtomicInteger();
         AtomicBoolean stop = new AtomicBoolean(false);
+        PublicationBatchUpdater publisherIdUpdater = publicationService.publisherIdUpdater();
 
-        publicationService.visitAll(0,
-                new PublicationProvider() {
-                    @Override
-                    public Page<Publication> provide(PageRequest pageRequest) {
+        try {
+            publicationService.visitAll(
+                    (lastPublication, limit) -> {
                         if (stop.get()) {
-                            return Page.empty();
+                            return List.of();
                         }
                         // find all publications with an empty publisherId
-                        return publicationService.findAllByPublisherId(pageRequest, "");
-                    }
-
-                    @Override
-                    public boolean isIncrementPage() {
-                        return false;
-                    }
-                },
-                publication -> {
-                    count.getAndIncrement();
+                        return publicationService.findAllByPublisherIdAfter(PublicationProvider.lastId(lastPublication), "", limit);
+                    },
+                    publication -> {
+                        count.getAndIncrement();
 //                    logger.debug(String.format("%d\tSearching publisher for PublicationId=%s", count.get(), publication.getId()));
-                    /*
-                    if (count.get() > 100) {
-                        stop.set(true);
-                        return;
-                    }
-                     */
+                        /*
+                        if (count.get() > 100) {
+                            stop.set(true);
+                            return;
+                        }
+                         */
 /*
-                    if (hasValue(publisher.getPublisherId())) {
-                        continue;
-                    }
+                        if (hasValue(publisher.getPublisherId())) {
+                            continue;
+                        }
 */
 
-                    /*
-                    String doi = publication.getDoi();
-                    String prefix = null;
-                    if (hasValue(doi)) {
-                        prefix = DoiSupport.prefix(doi);
-                    }
+                        /*
+                        String doi = publication.getDoi();
+                        String prefix = null;
+                        if (hasValue(doi)) {
+                            prefix = DoiSupport.prefix(doi);
+                        }
 
-                     */
-
-                    // the higher the score, the higher is the trust in the correctness of the identified publisher
-                    int score = 0;
-
-                    // if the institution provides a publisher name, try to identify this publisher
-                    int scoreInstitution = 0;
-                    String publisherName = publication.getPublisher();
-                    Publisher publisherFromInstitution = null;
-                    PublisherIdentifyResult publisherFromInstitutionResult = null;
-                    if (hasValue(publisherName)) {
-                        logger.debug("{}\tPublisher from Institution: {}\t{}", count.get(), publication.getId(), publisherName);
-                        publisherFromInstitutionResult = publisherService.identifyPublisher(publisherName);
-                        publisherFromInstitution = publisherFromInstitutionResult.getPublisher();
-                        scoreInstitution = calcScore(publisherName, publisherFromInstitutionResult);
-                    }
+                         */
 
-                    PublicationProps props = propsFrom(publication);
-                    // if there is a publisher from Crossref, try to identify this publisher
-                    String publisherNameCr = props.publisherCr;
-                    int scoreCrossref = 0;
-                    Publisher publisherFromCrossref = null;
-                    PublisherIdentifyResult publisherFromCrossrefResult = null;
-                    if (hasValue(publisherNameCr)) {
-                        logger.debug("{}\tPublisher from Crossref: {}\t{}", count.get(), publication.getId(), publisherNameCr);
-                        publisherFromCrossrefResult = publisherService.identifyPublisher(publisherNameCr);
-                        publisherFromCrossref = publisherFromCrossrefResult.getPublisher();
-                        scoreCrossref = calcScore(publisherNameCr, publisherFromCrossrefResult);
-                        if (!hasValue(publisherName)) {
-                            publisherName = publisherNameCr;
-                        }
-                    }
+                        // the higher the score, the higher is the trust in the correctness of the identified publisher
+                        int score = 0;
 
+                        // if the institution provides a publisher name, try to identify this publisher
+                        int scoreInstitution = 0;
+                        String publisherName = publication.getPublisher();
+                        Publisher publisherFromInstitution = null;
+                        PublisherIdentifyResult publisherFromInstitutionResult = null;
+                        if (hasValue(publisherName)) {
+                            logger.debug("{}\tPublisher from Institution: {}\t{}", count.get(), publication.getId(), publisherName);
+                            publisherFromInstitutionResult = publisherService.identifyPublisher(publisherName);
+                            publisherFromInstitution = publisherFromInstitutionResult.getPublisher();
+                            scoreInstitution = calcScore(publisherName, publisherFromInstitutionResult);
+                        }
 
-                    Publisher publisherFromJournal = null;
-                    // Is there a publisher from the journal?
-                    Journal journal = null;
-                    String journalId = publication.getJournalId();
-                    if (hasValue(journalId) && !journalId.startsWith(UNKNOWN_PREFIX)) {
-                        journal = journalCache.get(journalId);
-                        if (journal == null) {
-                            Optional<Journal> journalOpt = journalRepository.findById(journalId);
-                            journal = journalOpt.orElse(null);
-                            if (journal != null) {
-                                journalCache.put(journalId, journal);
+                        PublicationProps props = propsFrom(publication);
+                        // if there is a publisher from Crossref, try to identify this publisher
+                        String publisherNameCr = props.publisherCr;
+                        int scoreCrossref = 0;
+                        Publisher publisherFromCrossref = null;
+                        PublisherIdentifyResult publisherFromCrossrefResult = null;
+                        if (hasValue(publisherNameCr)) {
+                            logger.debug("{}\tPublisher from Crossref: {}\t{}", count.get(), publication.getId(), publisherNameCr);
+                            publisherFromCrossrefResult = publisherService.identifyPublisher(publisherNameCr);
+                            publisherFromCrossref = publisherFromCrossrefResult.getPublisher();
+                            scoreCrossref = calcScore(publisherNameCr, publisherFromCrossrefResult);
+                            if (!hasValue(publisherName)) {
+                                publisherName = publisherNameCr;
                             }
                         }
-                    }
-                    if (journal != null) {
-                        String publisherId = journal.publisherId(publication.publicationDate());
-                        if (!hasValue(publisherId)) {
-                            // try to update journal
-                            publisherForJournal.setPublisher(journal);
-                            publisherId = journal.publisherId(publication.publicationDate());
+
+
+                        Publisher publisherFromJournal = null;
+                        // Is there a publisher from the journal?
+                        Journal journal = null;
+                        String journalId = publication.getJournalId();
+                        if (hasValue(journalId) && !journalId.startsWith(UNKNOWN_PREFIX)) {
+                            journal = journalCache.get(journalId);
+                            if (journal == null) {
+                                Optional<Journal> journalOpt = journalRepository.findById(journalId);
+                                journal = journalOpt.orElse(null);
+                                if (journal != null) {
+                                    journalCache.put(journalId, journal);
+                                }
+                            }
                         }
-                        if (hasValue(publisherId)) {
-                            Publisher pub = publisherService.findById(publisherId);
-                            if (pub != null) {
-                                publisherFromJournal = pub;
-                                logger.debug(String.format("%d\tFound publisher %s for Journal %s", count.get(), pub.getName(), journal.getName()));
-                                score += 1000;
+                        if (journal != null) {
+                            String publisherId = journal.publisherId(publication.publicationDate());
+                            if (!hasValue(publisherId)) {
+                                // try to update journal
+                                publisherForJournal.setPublisher(journal);
+                                publisherId = journal.publisherId(publication.publicationDate());
+                            }
+                            if (hasValue(publisherId)) {
+                                Publisher pub = publisherService.findById(publisherId);
+                                if (pub != null) {
+                                    publisherFromJournal = pub;
+                                    logger.debug(String.format("%d\tFound publisher %s for Journal %s", count.get(), pub.getName(), journal.getName()));
+                                    score += 1000;
+                                } else {
+                                    logger.error(String.format("%d\tNo publisher found for journalId=%s with publisherId=%s", count.get(), journal.getId(), publisherId));
+                                }
                             } else {
-                                logger.error(String.format("%d\tNo publisher found for journalId=%s with publisherId=%s", count.get(), journal.getId(), publisherId));
+                                logger.debug(String.format("Journal %s (%s) has no publisher (wikiPublisherId=%s)", journal.getId(), journal.getName(), journal.getWikiPublisherId()));
+                            }
+                            if (publisherFromJournal == null) {
+                                AtomicInteger jcount = journalsWithoutPublishers.computeIfAbsent(journal, (k) -> new AtomicInteger(0));
+                                jcount.incrementAndGet();
                             }
-                        } else {
-                            logger.debug(String.format("Journal %s (%s) has no publisher (wikiPublisherId=%s)", journal.getId(), journal.getName(), journal.getWikiPublisherId()));
-                        }
-                        if (publisherFromJournal == null) {
-                            AtomicInteger jcount = journalsWithoutPublishers.computeIfAbsent(journal, (k) -> new AtomicInteger(0));
-                            jcount.incrementAndGet();
                         }
-                    }
 
-                    Publisher publisher = publisherFromJournal;
-                    // first choice is the publisher from the Journal
-                    if (publisher != null) {
-                        if (publisherFromInstitution != null && !publisher.equals(publisherFromInstitution)) {
-                            logger.warn(String.format("PublicationId=%s\tFound publisher %s for Journal, but different publisher %s from institution for %s", publication.getId(), publisher.getName(), publisherFromInstitution.getName(), publication.getPublisher()));
-                        } else {
-                            score += scoreInstitution;
-                        }
-                        if (publisherFromCrossref != null && !publisher.equals(publisherFromCrossref)) {
-                            logger.warn(String.format("PublicationId=%s\tFound publisher %s for Journal, but different publisher %s from Crossref for %s", publication.getId(), publisher.getName(), publisherFromCrossref.getName(), publisherNameCr));
-                        } else {
-                            score += scoreCrossref;
-                        }
-                    } else {
-                        // second choice is the publisher from Crossref
-                        if (publisherFromCrossref != null) {
-                            publisher = publisherFromCrossref;
-                            score = scoreCrossref;
-                        } else if (publisherFromInstitution != null) {
-                            publisher = publisherFromInstitution;
-                            score = scoreInstitution;
-                        }
-                        if (publisherFromInstitution != null && publisherFromCrossref != null) {
-                            if (!publisherFromCrossref.equals(publisherFromInstitution)) {
-                                logger.warn(String.format("PublicationId=%s\tFound publisher %s from institution, but different publisher %s from crossref for %s and %s", publication.getId(), publisherFromInstitution.getName(), publisherFromCrossref.getName(), publication.getPublisher(), publisherNameCr));
-                                if (scoreInstitution > scoreCrossref) {
-                                    publisher = publisherFromInstitution;
-                                    score = scoreInstitution;
-                                }
+                        Publisher publisher = publisherFromJournal;
+                        // first choice is the publisher from the Journal
+                        if (publisher != null) {
+                            if (publisherFromInstitution != null && !publisher.equals(publisherFromInstitution)) {
+                                logger.warn(String.format("PublicationId=%s\tFound publisher %s for Journal, but different publisher %s from institution for %s", publication.getId(), publisher.getName(), publisherFromInstitution.getName(), publication.getPublisher()));
                             } else {
                                 score += scoreInstitution;
                             }
+                            if (publisherFromCrossref != null && !publisher.equals(publisherFromCrossref)) {
+                                logger.warn(String.format("PublicationId=%s\tFound publisher %s for Journal, but different publisher %s from Crossref for %s", publication.getId(), publisher.getName(), publisherFromCrossref.getName(), publisherNameCr));
+                            } else {
+                                score += scoreCrossref;
+                            }
+                        } else {
+                            // second choice is the publisher from Crossref
+                            if (publisherFromCrossref != null) {
+                                publisher = publisherFromCrossref;
+                                score = scoreCrossref;
+                            } else if (publisherFromInstitution != null) {
+                                publisher = publisherFromInstitution;
+                                score = scoreInstitution;
+                            }
+                            if (publisherFromInstitution != null && publisherFromCrossref != null) {
+                                if (!publisherFromCrossref.equals(publisherFromInstitution)) {
+                                    logger.warn(String.format("PublicationId=%s\tFound publisher %s from institution, but different publisher %s from crossref for %s and %s", publication.getId(), publisherFromInstitution.getName(), publisherFromCrossref.getName(), publication.getPublisher(), publisherNameCr));
+                                    if (scoreInstitution > scoreCrossref) {
+                                        publisher = publisherFromInstitution;
+                                        score = scoreInstitution;
+                                    }
+                                } else {
+                                    score += scoreInstitution;
+                                }
+                            }
                         }
-                    }
 
-                    if (publisher != null) {
-                        count_identified.getAndIncrement();
-                        logger.debug(String.format("PublicationId=%s\tFound publisher\t%s\tfor\t%s\tscore: %d", publication.getId(), publisher.getName(), publisherName, score));
-                        publicationService.updatePublisherId(publication.getId(), publisher.getId());
-                    } else {
-                        publicationService.updatePublisherId(publication.getId(), Publisher.UNKNOWN_PUBLISHER);
-                        count_unidentified.getAndIncrement();
-                        if (hasValue(publisherName)) {
-                            UnidentifiedPublisher record = unIdentifiedPublishers.computeIfAbsent(publisherName, (k) -> new UnidentifiedPublisher(null));
-                            record.count++;
-                            record.publicationIds.add(publication.getId());
+                        if (publisher != null) {
+                            count_identified.getAndIncrement();
+                            logger.debug(String.format("PublicationId=%s\tFound publisher\t%s\tfor\t%s\tscore: %d", publication.getId(), publisher.getName(), publisherName, score));
+                            publisherIdUpdater.update(publication.getId(), publisher.getId());
+                        } else {
+                            publisherIdUpdater.update(publication.getId(), Publisher.UNKNOWN_PUBLISHER);
+                            count_unidentified.getAndIncrement();
+                            if (hasValue(publisherName)) {
+                                UnidentifiedPublisher record = unIdentifiedPublishers.computeIfAbsent(publisherName, (k) -> new UnidentifiedPublisher(null));
+                                record.count++;
+                                record.publicationIds.add(publication.getId());
+                            }
                         }
-                    }
 
-                });
+                    });
+        } finally {
+            // the updates collected until an error are written too
+            publisherIdUpdater.flush();
+        }
 
         logger.info(String.format("Publishers: Identified: %d, not identified: %d", count_identified.get(), count_unidentified.get()));
         // Log missing data into a dedicated file to serve as a basis for future data entry.
@@ -321,95 +317,117 @@ public class PublisherIdentificationService {
 
         logger.info("Identify journal");
         AtomicInteger count = new AtomicInteger();
-        publicationService.visitAll(0,
-                new PublicationProvider() {
-                    @Override
-                    public Page<Publication> provide(PageRequest pageRequest) {
-                        // find all publications with an empty journalId
-                        return publicationService.findAllEmptyJournalId(pageRequest);
-                    }
-
-                    @Override
-                    public boolean isIncrementPage() {
-                        return false;
-                    }
-                }, publication -> {
+        PublicationBatchUpdater journalIdUpdater = publicationService.journalIdUpdater();
+        try {
+            publicationService.visitAll(
+                    // find all publications with an empty journalId
+                    (lastPublication, limit) -> publicationService.findAllEmptyJournalIdAfter(PublicationProvider.lastId(lastPublication), limit),
+                    publications -> prefetchJournals(publications, journalPerIssnCache),
+                    publication -> {
 
-                    count.getAndIncrement();
+                        count.getAndIncrement();
 
-                    String journalId = publication.getJournalId();
+                        String journalId = publication.getJournalId();
 
-                    // if there is already a journalId then exit
-                    if (journalId != null && !journalId.isEmpty()) {
-                        return;
-                    }
+                        // if there is already a journalId then exit
+                        if (journalId != null && !journalId.isEmpty()) {
+                            return;
+                        }
 //            logger.debug(count + "\t" + publication.getId() + "\t" + publication.getPublisher());
 
-                    Set<String> issns = new HashSet<>(publication.getIssn());
+                        List<String> issnList = issnsOfPublication(publication, true);
 
-                    PublicationProps props = propsFrom(publication);
-                    if (hasValue(props.issnCr)) {
-                        issns.addAll(props.issnCr);
-                    }
-
-                    if (hasValue(props.issnL)) {
-                        if (!issns.contains(props.issnL)) {
-//                    logger.debug("issns {} don't include IssnL {} of publication id {}", issns, props.issnL, publication.getId());
-                            issns.add(props.issnL);
-                        }
-                    }
-
-                    if (issns.isEmpty()) {
+                        if (issnList.isEmpty()) {
 //                logger.debug(String.format("no issns for publication id %s", publication.getId()));
-                        // set a value for the journalId in the publication, so that this record is not considered until the data in the record is changed
-                        publicationService.updateJournalId(publication.getId(), NO_ISSN_AVAILABLE);
-                        return;
-                    }
-
-                    List<String> issnList = new ArrayList<>(issns);
-                    // check issns
-                    for (int i = 0; i < issnList.size(); i++) {
-                        String issn = issnList.get(i);
-                        String issnNorm = IssnSupport.normalizeIssn(issn);
-                        if (!issn.equals(issnNorm)) {
-                            logger.warn("publication {} has issn {} in wrong format", publication.getId(), issn);
-                            issnList.set(i, issnNorm);
+                            // set a value for the journalId in the publication, so that this record is not considered until the data in the record is changed
+                            journalIdUpdater.update(publication.getId(), NO_ISSN_AVAILABLE);
+                            return;
                         }
-                    }
 
-                    // is the journal already in the cache?
-                    Journal journal = journalPerIssnCache.getJournal(issnList);
-                    if (journal == null) {
+                        // is the journal already in the cache?
+                        Journal journal = journalPerIssnCache.getJournal(issnList);
+                        if (journal == null) {
 //                logger.debug(String.format("Searching for issn: %s in Database and Wikidata", issnList));
-                        journal = publisherService.searchAndSaveJournal(issnList);
-                        if (journal != null) {
+                            journal = publisherService.searchAndSaveJournal(issnList);
+                            if (journal != null) {
 //                    logger.debug(String.format("Found: Journal %s in Database or Wikidata", journal.getName()));
-                            // add to cache in journalIdentifier
-                            List<String> journalIssns = journal.issnsAsList();
-                            if (hasValue(journal.getIssnl())) {
-                                journalPerIssnCache.addJournal(journal.getIssnl(), journal);
-                            }
-                            for (String issn : journalIssns) {
-                                journalPerIssnCache.addJournal(issn, journal);
+                                // add to cache in journalIdentifier
+                                List<String> journalIssns = journal.issnsAsList();
+                                if (hasValue(journal.getIssnl())) {
+                                    journalPerIssnCache.addJournal(journal.getIssnl(), journal);
+                                }
+                                for (String issn : journalIssns) {
+                                    journalPerIssnCache.addJournal(issn, journal);
+                                }
                             }
                         }
-                    }
 
-                    if (journal != null) {
-                        publisherForJournal.setPublisher(journal);
-                        journalId = journal.getId();
-                    } else {
-                        loggerDataMissing.info(String.format("No Journal found for publicationId for issn\t%s\t%s", publication.getId(), issns));
-                        journalId = UNKNOWN_JOURNAL;
-                    }
-                    publicationService.updateJournalId(publication.getId(), journalId);
+                        if (journal != null) {
+                            publisherForJournal.setPublisher(journal);
+                            journalId = journal.getId();
+                        } else {
+                            loggerDataMissing.info(String.format("No Journal found for publicationId for issn\t%s\t%s", publication.getId(), issnList));
+                            journalId = UNKNOWN_JOURNAL;
+                        }
+                        journalIdUpdater.update(publication.getId(), journalId);
 
-                });
+                    });
+        } finally {
+            // the updates collected until an error are written too
+            journalIdUpdater.flush();
+        }
         logger.info("Identify journal finished");
 
     }
 
 
+    /*
+     * The journals of a page of publications, which are not in the cache yet, are looked up in Wikidata together
+     */
+    private void prefetchJournals(List<Publication> publications, JournalMap journalPerIssnCache) {
+        Set<List<String>> issnLists = new HashSet<>();
+        for (Publication publication : publications) {
+            List<String> issnList = issnsOfPublication(publication, false);
+            if (!issnList.isEmpty() && journalPerIssnCache.getJournal(issnList) == null) {
+                issnLists.add(issnList);
+            }
+        }
+        if (!issnLists.isEmpty()) {
+            publisherService.prefetchJournals(issnLists);
+        }
+    }
+
+    // issns of the publication and of the Crossref record (normalized)
+    private List<String> issnsOfPublication(Publication publication, boolean logWrongFormat) {
+        Set<String> issns = new HashSet<>(publication.getIssn());
+
+        PublicationProps props = propsFrom(publication);
+        if (hasValue(props.issnCr)) {
+            issns.addAll(props.issnCr);
+        }
+
+        if (hasValue(props.issnL)) {
+            if (!issns.contains(props.issnL)) {
+//                    logger.debug("issns {} don't include IssnL {} of publication id {}", issns, props.issnL, publication.getId());
+                issns.add(props.issnL);
+            }
+        }
+
+        List<String> issnList = new ArrayList<>(issns);
+        // check issns
+        for (int i = 0; i < issnList.size(); i++) {
+            String issn = issnList.get(i);
+            String issnNorm = IssnSupport.normalizeIssn(issn);
+            if (!issn.equals(issnNorm)) {
+                if (logWrongFormat) {
+                    logger.warn("publication {} has issn {} in wrong format", publication.getId(), issn);
+                }
+                issnList.set(i, issnNorm);
+            }
+        }
+        return issnList;
+    }
+
     /*
      * called if a publisher with the wikiPublisherId is already existing in the database
      * Duplicate entry could exist if the publisher is ignored in the database (flag = 1)
@@ -456,52 +474,50 @@ public class PublisherIdentificationService {
         int year = 0;  // take the year from the publishing date of the publication itself
         Collection<Publisher> publishers = publisherService.readPublishers();
         MainPublisherSupplier supplier = new MainPublisherSupplier(publishers, year);
+        PublicationBatchUpdater mainPublisherIdUpdater = publicationService.mainPublisherIdUpdater();
 
-        publicationService.visitAll(0,
-                new PublicationProvider() {
-                    @Override
-                    public Page<Publication> provide(PageRequest pageRequest) {
+        try {
+            publicationService.visitAll(
+                    (lastPublication, limit) -> {
                         if (stop.get()) {
-                            return Page.empty();
+                            return List.of();
                         }
                         // find all publications with an empty mainPublisherId
-                        return publicationService.findAllEmptyMainPublisherId(pageRequest);
-                    }
-
-                    @Override
-                    public boolean isIncrementPage() {
-                        return false;
-                    }
-                },
-                publication -> {
-                    count.getAndIncrement();
+                        return publicationService.findAllEmptyMainPublisherIdAfter(PublicationProvider.lastId(lastPublication), limit);
+                    },
+                    publication -> {
+                        count.getAndIncrement();
 //                    logger.debug(String.format("%d\tSearching main publisher for PublicationId=%s", count.get(), publication.getId()));
-                    /*
-                    if (count.get() > 100) {
-                        stop.set(true);
-                        return;
-                    }
-                     */
-
-                    String mainPublisherId = null;
-                    String publisherId = publication.getPublisherId();
-                    if (hasValue(publisherId) && !publisherId.equals(Publisher.UNKNOWN_PUBLISHER)) {
-                        Publisher mainPublisher = supplier.findMainPublisher(publisherId, publication.getYear());
-                        if (mainPublisher != null) {
-                            countMain.getAndIncrement();
+                        /*
+                        if (count.get() > 100) {
+                            stop.set(true);
+                            return;
+                        }
+                         */
+
+                        String mainPublisherId = null;
+                        String publisherId = publication.getPublisherId();
+                        if (hasValue(publisherId) && !publisherId.equals(Publisher.UNKNOWN_PUBLISHER)) {
+                            Publisher mainPublisher = supplier.findMainPublisher(publisherId, publication.getYear());
+                            if (mainPublisher != null) {
+                                countMain.getAndIncrement();
 //                        logger.debug(String.format("PublicationId=%s\tFound main publisher\t%s\t%s", publication.getId(), mainPublisher.getName(), mainPublisher.getId()));
-                            mainPublisherId = mainPublisher.getId();
-                        } else {
-                            logger.debug(String.format("PublicationId=%s\tNo main publisher found", publication.getId()));
+                                mainPublisherId = mainPublisher.getId();
+                            } else {
+                                logger.debug(String.format("PublicationId=%s\tNo main publisher found", publication.getId()));
+                            }
                         }
-                    }
-                    if (mainPublisherId == null) {
-                        mainPublisherId = Publisher.UNKNOWN_PUBLISHER;
-                    }
-                    if (!mainPublisherId.equals(publication.getMainPublisherId())) {
-                        publicationService.updateMainPublisherId(publication.getId(), mainPublisherId);
-                    }
-                });
+                        if (mainPublisherId == null) {
+                            mainPublisherId = Publisher.UNKNOWN_PUBLISHER;
+                        }
+                        if (!mainPublisherId.equals(publication.getMainPublisherId())) {
+                            mainPublisherIdUpdater.update(publication.getId(), mainPublisherId);
+                        }
+                    });
+        } finally {
+            // the updates collected until an error are written too
+            mainPublisherIdUpdater.flush();
+        }
 
     }
 
@@ -22,7 +22,6 @@
 
 package at.roesel.oadataprocessor.services;
 
-import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.Journal;
 import at.roesel.oadataprocessor.model.Publisher;
 import at.roesel.oadataprocessor.model.wikidata.WikidataJsonEntity;
@@ -47,9 +46,6 @@ public class PublisherServiceImpl implements PublisherService, PublisherSource,
 
     private final Logger logger = LoggerFactory.getLogger(PublisherServiceImpl.class);
 
-    @Autowired
-    private AppSettings appSettings;
-
     @Autowired
     private PublisherRepository publisherRepository;
 
@@ -198,6 +194,27 @@ public class PublisherServiceImpl implements PublisherService, PublisherSource,
         return null;
     }
 
+    /*
+     * The Wikidata ids of the journals with the ISSN lists, which are not in the database,
+     * are looked up together, so that searchJournal finds them in the cache of the WikidataService.
+     */
+    public void prefetchJournals(Collection<List<String>> issnLists) {
+        Set<String> issns = new LinkedHashSet<>();
+        for (List<String> issnList : issnLists) {
+            if (searchJournalInDatabaseByIssn(issnList) == null) {
+                issns.addAll(issnList);
+            }
+        }
+        if (!issns.isEmpty()) {
+            try {
+                wikidataService.searchJournalIds(issns);
+            } catch (Exception e) {
+                // searchJournal queries the ISSNs again
+                logger.error("prefetch of journals from Wikidata failed: {}", e.getMessage());
+            }
+        }
+    }
+
     public Journal searchJournalInDatabaseByIssn(List<String> issns) {
         for (String issn : issns) {
             List<Journal> journals = journalRepository.findAllByIssn(issn);
@@ -236,7 +253,7 @@ public class PublisherServiceImpl implements PublisherService, PublisherSource,
         if (modifiedAfterDate == null) {
             modifiedAfterDate = lastImportService.loadLastImportDate(ImportType.WIKIDATA_PUBLISHER);
         }
-        WikidataPublisherImporter importer = new WikidataPublisherImporter(appSettings, this, wikidataService::fetchPublisher);
+        WikidataPublisherImporter importer = new WikidataPublisherImporter(this, wikidataService::fetchPublishers, wikidataService::fetchPublisher);
         importer.updatePublishersfromWikidata(modifiedAfterDate);
         lastImportService.saveLastServiceImportDate(ImportType.WIKIDATA_PUBLISHER, LocalDate.now());
 
@@ -280,11 +297,29 @@ public class PublisherServiceImpl implements PublisherService, PublisherSource,
         } else {
             journals = readJournalsOfPublications();
         }
+        long updateTime = System.currentTimeMillis() - 86400 * 1000 * 7;
+        // journals, whose Wikidata entity was not modified since it was fetched, are not fetched again
+        Map<String, Long> modificationTimes;
+        try {
+            modificationTimes = wikidataService.modificationTimes(journals.stream()
+                    .filter(journal -> journal.getUpdatedWikidata() <= updateTime)
+                    .map(Journal::getWikiId)
+                    .toList());
+        } catch (Exception e) {
+            logger.error("modification times of the journals not available: {}", e.getMessage());
+            modificationTimes = Map.of();
+        }
         int count = 0;
         int updated = 0;
+        int unmodified = 0;
         for (Journal journal : journals) {
             count++;
-            if (journal.getUpdatedWikidata() > System.currentTimeMillis() - 86400 * 1000 * 7) {
+            if (journal.getUpdatedWikidata() > updateTime) {
+                continue;
+            }
+            Long modificationTime = modificationTimes.get(journal.getWikiId());
+            if (modificationTime != null && modificationTime < journal.getUpdatedWikidata()) {
+                unmodified++;
                 continue;
             }
             Journal newJournal = wikidataService.fetchJournal(journal.getWikiId());
@@ -312,7 +347,7 @@ public class PublisherServiceImpl implements PublisherService, PublisherSource,
             }
         }
 
-        logger.info("Update journals from Wikidata finished, updated {} of {}", updated, count);
+        logger.info("Update journals from Wikidata finished, updated {} of {}, {} not modified in Wikidata", updated, count, unmodified);
 
     }
 
@@ -27,6 +27,7 @@ import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.services.impexp.export.DownloadCache;
 import at.roesel.oadataprocessor.services.openapc.OpenApcService;
 import at.roesel.oadataprocessor.services.publicationsource.PublicationSourceService;
+import at.roesel.oadataprocessor.services.sherpa.SherpaService;
 import at.roesel.oadataprocessor.services.websocket.WebSocketMessage;
 import at.roesel.oadataprocessor.services.websocket.WebSocketService;
 import jakarta.annotation.PostConstruct;
@@ -80,6 +81,9 @@ public class WorkService {
     @Autowired
     private PublicationService publicationService;
 
+    @Autowired
+    private SherpaService sherpaService;
+
     @Autowired
     private WebSocketService webSocketService;
 
@@ -229,6 +233,7 @@ public class WorkService {
         downloadCache.clear();
         // clear data caches;
         dataService.clearAllCaches();
+        sherpaService.clearCache();
     }
 
 
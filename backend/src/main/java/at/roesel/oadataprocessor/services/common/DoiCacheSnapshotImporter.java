@@ -0,0 +1,220 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.common;
+
+import at.roesel.common.SystemTime;
+import at.roesel.oadataprocessor.model.SourceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static at.roesel.common.StringSupport.hasValue;
+
+/*
+ * Base class for the import of a data snapshot in JSON lines format into one of the cache tables
+ * with the columns doi, created, updated, record and status (e.g. crossref, unpaywall).
+ * The records are written with batched upserts, records whose cached entry is not older than the
+ * snapshot record are skipped.
+ */
+public abstract class DoiCacheSnapshotImporter<T> {
+
+    private final Logger logger = LoggerFactory.getLogger(DoiCacheSnapshotImporter.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Class<T> type;
+    protected final String table;
+
+    protected DoiCacheSnapshotImporter(Class<T> type, String table) {
+        this.type = type;
+        this.table = table;
+    }
+
+    protected abstract String doi(T record);
+
+    // time of the last change of the record in the snapshot [ms], 0 if unknown
+    protected abstract long recordTimestamp(T record);
+
+    protected abstract String toDatabaseColumn(T record);
+
+    protected abstract SourceStatus status(T record);
+
+    // tables with further columns override insertSql and insertValues
+    protected String insertSql() {
+        return "INSERT INTO " + table + " (doi, created, updated, record, status) VALUES (?, ?, NULL, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE updated = VALUES(created), record = VALUES(record), status = VALUES(status)";
+    }
+
+    protected Object[] insertValues(T record, String doi, long now) {
+        return new Object[]{doi, now, toDatabaseColumn(record), status(record).ordinal()};
+    }
+
+    /*
+     * @param dois lower case DOIs of the records to import, null = all records
+     */
+    protected void importSnapshot(Path path, Set<String> dois, int batchSize) {
+        logger.info("importing {} snapshot from {}", table, path);
+        ImportState state = new ImportState(dois, batchSize);
+        try {
+            new JsonLinesReader<>(type).read(path, state::add);
+            state.flush();
+        } catch (IOException e) {
+            logger.error("error while reading {} snapshot {}: {}", table, path, e.getMessage(), e);
+        }
+        logger.info(String.format("%s snapshot import finished: %d imported, %d skipped (cached record is newer), %d ignored",
+                table, state.imported, state.skipped, state.ignored));
+    }
+
+    /*
+     * Reads a list of DOIs, one per line
+     * @return lower case DOIs
+     */
+    public static Set<String> readDois(Path file) throws IOException {
+        try (var lines = Files.lines(file)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .map(doi -> doi.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    /*
+     * @param doiFile optional file with DOIs, one per line
+     * @return lower case DOIs from the file or, if no file is given, the default DOIs
+     */
+    protected static Set<String> doisToImport(String doiFile, Supplier<Collection<String>> defaultDois) throws IOException {
+        if (hasValue(doiFile)) {
+            return readDois(Path.of(doiFile));
+        }
+        return toLowerCase(defaultDois.get());
+    }
+
+    public static Set<String> toLowerCase(Collection<String> dois) {
+        return dois.stream().map(doi -> doi.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    /*
+     * @return true if the cached record was stored after the snapshot record was changed
+     */
+    public static boolean isCachedRecordNewer(Long created, Long updated, long recordTimestamp) {
+        long cached = Math.max(created != null ? created : 0, updated != null ? updated : 0);
+        return cached >= recordTimestamp;
+    }
+
+    /*
+     * Snapshot dates are in UTC, mostly without offset, e.g. 2023-05-17T01:52:29.823044
+     * @return time in ms, 0 if the value is missing or can't be parsed
+     */
+    public static long parseTimestamp(String value) {
+        if (!hasValue(value)) {
+            return 0;
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException e2) {
+                return 0;
+            }
+        }
+    }
+
+    private class ImportState {
+        private final Set<String> dois;
+        private final int batchSize;
+        private final List<T> batch = new ArrayList<>();
+        private int imported = 0;
+        private int skipped = 0;
+        private int ignored = 0;
+
+        ImportState(Set<String> dois, int batchSize) {
+            this.dois = dois;
+            this.batchSize = Math.max(batchSize, 1);
+        }
+
+        void add(T record) {
+            String doi = doi(record);
+            if (!hasValue(doi) || (dois != null && !dois.contains(doi.toLowerCase(Locale.ROOT)))) {
+                ignored++;
+                return;
+            }
+            batch.add(record);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<String, Long[]> cached = cachedTimestamps(batch);
+            List<Object[]> rows = new ArrayList<>();
+            long now = SystemTime.currentTimeMillis();
+            for (T record : batch) {
+                String doi = doi(record);
+                Long[] timestamps = cached.get(doi.toLowerCase(Locale.ROOT));
+                if (timestamps != null && isCachedRecordNewer(timestamps[0], timestamps[1], recordTimestamp(record))) {
+                    skipped++;
+                    continue;
+                }
+                rows.add(insertValues(record, doi, now));
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(insertSql(), rows);
+                imported += rows.size();
+            }
+            logger.debug(String.format("%s snapshot: %d imported, %d skipped", table, imported, skipped));
+            batch.clear();
+        }
+    }
+
+    // created and updated of the cached records, by lower case DOI
+    private Map<String, Long[]> cachedTimestamps(List<T> records) {
+        List<String> dois = records.stream().map(this::doi).distinct().toList();
+        String placeholders = String.join(",", Collections.nCopies(dois.size(), "?"));
+        Map<String, Long[]> result = new HashMap<>();
+        jdbcTemplate.query("SELECT doi, created, updated FROM " + table + " WHERE doi IN (" + placeholders + ")",
+                rs -> {
+                    result.put(rs.getString(1).toLowerCase(Locale.ROOT),
+                            new Long[]{rs.getObject(2, Long.class), rs.getObject(3, Long.class)});
+                },
+                dois.toArray());
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.common;
+
+import at.roesel.oadataprocessor.persistance.conversion.ObjectMapperFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Reads the records of a data snapshot in JSON lines format, like the Crossref public data file,
+ * the Unpaywall snapshot or a partition of the OpenAlex snapshot. The path can be a single file
+ * (*.jsonl, *.jsonl.gz or *.gz) or a directory, whose files are read including those in subdirectories.
+ * Lines that can't be parsed are logged and skipped.
+ */
+public class JsonLinesReader<T> {
+
+    private final Logger logger = LoggerFactory.getLogger(JsonLinesReader.class);
+
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    public JsonLinesReader(Class<T> type) {
+        this.type = type;
+        objectMapper = ObjectMapperFactory.create();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public void read(Path path, Consumer<T> consumer) throws IOException {
+        for (Path file : snapshotFiles(path)) {
+            readFile(file, consumer);
+        }
+    }
+
+    static List<Path> snapshotFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(file -> Files.isRegularFile(file) && isSnapshotFile(file.getFileName().toString()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean isSnapshotFile(String name) {
+        return name.endsWith(".jsonl") || name.endsWith(".gz");
+    }
+
+    private void readFile(Path file, Consumer<T> consumer) throws IOException {
+        logger.debug("reading snapshot file {}", file);
+        InputStream inputStream = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            inputStream = new GZIPInputStream(inputStream, 65536);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                T record;
+                try {
+                    record = objectMapper.readValue(line, type);
+                } catch (IOException e) {
+                    logger.warn("{} line {}: {}", file, lineNumber, e.getMessage());
+                    continue;
+                }
+                consumer.accept(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.services.common;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Provides one ProviderHttpClient per external provider, owned by the application context.
+ * The limits are configured with the properties
+ *   provider.<name>.rate         requests per second, 0 = no limit
+ *   provider.<name>.concurrency  maximum number of parallel requests, 0 = no limit
+ */
+@Component
+public class ProviderHttpClients {
+
+    public final static String crossref = "crossref";
+    public final static String unpaywall = "unpaywall";
+    public final static String openalex = "openalex";
+    public final static String doaj = "doaj";
+    public final static String sherpa = "sherpa";
+    public final static String wikidata = "wikidata";
+    public final static String pure = "pure";
+    public final static String uibk = "uibk";
+
+    private final Logger logger = LoggerFactory.getLogger(ProviderHttpClients.class);
+
+    private final Environment environment;
+
+    private final Map<String, ProviderHttpClient> clients = new ConcurrentHashMap<>();
+
+    public ProviderHttpClients(Environment environment) {
+        this.environment = environment;
+    }
+
+    public ProviderHttpClient get(String provider) {
+        return clients.computeIfAbsent(provider, this::create);
+    }
+
+    private ProviderHttpClient create(String provider) {
+        double rate = environment.getProperty("provider." + provider + ".rate", Double.class, 0.0);
+        int concurrency = environment.getProperty("provider." + provider + ".concurrency", Integer.class, 0);
+        logger.debug("http client for {}: rate = {}/s, concurrency = {}", provider, rate, concurrency);
+        return new ProviderHttpClient(provider, rate, concurrency);
+    }
+
+    @PreDestroy
+    public void close() {
+        for (ProviderHttpClient client : clients.values()) {
+            client.close();
+        }
+        clients.clear();
+    }
+}
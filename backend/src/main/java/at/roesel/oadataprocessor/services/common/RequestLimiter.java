@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.services.common;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Limits the requests to an external service
+ * - at most maxConcurrent requests at the same time (0 = no limit)
+ * - at most requestsPerSecond requests per second, the requests are evenly spaced (0 = no limit)
+ * Can be shared by several threads.
+ */
+public class RequestLimiter {
+
+    private final Semaphore semaphore;
+    private final long intervalNanos;
+
+    // earliest time for the start of the next request
+    private long nextStartNanos;
+
+    public RequestLimiter(double requestsPerSecond, int maxConcurrent) {
+        semaphore = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+        nextStartNanos = System.nanoTime();
+    }
+
+    public static RequestLimiter unlimited() {
+        return new RequestLimiter(0, 0);
+    }
+
+    /*
+     * blocks until a request may be started, every call must be followed by a call of release()
+     */
+    public void acquire() {
+        try {
+            if (semaphore != null) {
+                semaphore.acquire();
+            }
+            try {
+                long waitNanos = reserveStart();
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            } catch (InterruptedException e) {
+                release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for a request slot", e);
+        }
+    }
+
+    public void release() {
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
+    // @return: the time to wait until the reserved start time
+    private synchronized long reserveStart() {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long start = Math.max(now, nextStartNanos);
+        nextStartNanos = start + intervalNanos;
+        return start - now;
+    }
+}
@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.services.common;
 
 import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
@@ -32,16 +33,21 @@ import org.apache.hc.client5.http.ssl.TrustAllStrategy;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.*;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class RestClient {
 
@@ -55,37 +61,81 @@ public class RestClient {
     // url of server for which the proxy shall be active, hostname and port of Proxy
     // e.g. pure.testuni.at:localhost:3128
     public RestClient(String proxyConfig) {
+        this(null, proxyConfig);
+    }
+
+    public RestClient() {
+        this(null, null);
+    }
+
+    /*
+     * Uses the shared connection pool and the request limits of the provider.
+     * With a proxyConfig the client gets its own connections, but the limits of the provider are still used.
+     */
+    public RestClient(ProviderHttpClient provider) {
+        this(provider, null);
+    }
+
+    public RestClient(ProviderHttpClient provider, String proxyConfig) {
+        HttpClient httpClient;
+        boolean useProxy = proxyConfig != null && !proxyConfig.isEmpty();
+        if (provider != null && !useProxy) {
+            httpClient = provider.getHttpClient();
+        } else {
+            // proxy selector may be needed for local development, if access to the server is only allowed for specific IPs
+            httpClient = buildHttpClient(useProxy ? createProxySelector(proxyConfig) : null, 0);
+        }
+
+        HttpComponentsClientHttpRequestFactory requestFactory
+                = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setHttpClient(httpClient);
+
+        restTemplate = new RestTemplate(requestFactory);
+
+        if (provider != null) {
+            RequestLimiter limiter = provider.getLimiter();
+            restTemplate.getInterceptors().add((request, body, execution) -> {
+                limiter.acquire();
+                ClientHttpResponse response;
+                try {
+                    response = execution.execute(request, body);
+                } catch (IOException | RuntimeException e) {
+                    limiter.release();
+                    throw e;
+                }
+                // the permit is held until the body is read, RestTemplate closes every response
+                return new LimitedResponse(response, limiter);
+            });
+        }
+    }
+
+    /*
+     * @param maxConnections maximum number of connections per route, 0 = default of the connection manager
+     */
+    static CloseableHttpClient buildHttpClient(ProxySelector proxySelector, int maxConnections) {
         try {
-            HttpClientBuilder httpClientBuilder = HttpClients.custom()
-                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
-                            .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
-                                    .setSslContext(SSLContextBuilder.create()
-                                            .loadTrustMaterial(TrustAllStrategy.INSTANCE)
-                                            .build())
-                                    .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+            PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder = PoolingHttpClientConnectionManagerBuilder.create()
+                    .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
+                            .setSslContext(SSLContextBuilder.create()
+                                    .loadTrustMaterial(TrustAllStrategy.INSTANCE)
                                     .build())
+                            .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
                             .build());
-            // proxy selector may be needed for local development, if access to the server is only allowed for specific IPs
-            if (proxyConfig != null && !proxyConfig.isEmpty()) {
-                httpClientBuilder.setProxySelector(createProxySelector(proxyConfig));
+            if (maxConnections > 0) {
+                connectionManagerBuilder.setMaxConnPerRoute(maxConnections);
+                connectionManagerBuilder.setMaxConnTotal(Math.max(maxConnections, 25));
             }
-            HttpClient httpClient = httpClientBuilder.build();
-
-            HttpComponentsClientHttpRequestFactory requestFactory
-                    = new HttpComponentsClientHttpRequestFactory();
-            requestFactory.setHttpClient(httpClient);
-
-            restTemplate = new RestTemplate(requestFactory);
-
+            HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                    .setConnectionManager(connectionManagerBuilder.build());
+            if (proxySelector != null) {
+                httpClientBuilder.setProxySelector(proxySelector);
+            }
+            return httpClientBuilder.build();
         } catch (KeyManagementException | KeyStoreException | NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
     }
 
-    public RestClient() {
-        this(null);
-    }
-
     private ProxySelector createProxySelector(String proxyConfig) {
 
         ProxyResult result = createProxy(proxyConfig);
@@ -141,4 +191,48 @@ public class RestClient {
         return new ProxyResult(url, proxy);
     }
 
+    /*
+     * Releases the permit of the limiter when the response is closed.
+     */
+    private static class LimitedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final RequestLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        LimitedResponse(ClientHttpResponse response, RequestLimiter limiter) {
+            this.response = response;
+            this.limiter = limiter;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    limiter.release();
+                }
+            }
+        }
+    }
 }
@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.services.crossref;
 
 import at.roesel.oadataprocessor.model.crossref.*;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import at.roesel.common.SleepSupport;
 import org.slf4j.Logger;
@@ -52,7 +53,11 @@ public class CrossrefClient extends RestClient {
     private int requestCount;
 
     public CrossrefClient(String mailTo) {
-        super();
+        this(mailTo, null);
+    }
+
+    public CrossrefClient(String mailTo, ProviderHttpClient provider) {
+        super(provider);
         this.mailTo = mailTo;
         userAgent = String.format("%s (mailto:%s)", clientName, mailTo);
         requestCount = 0;
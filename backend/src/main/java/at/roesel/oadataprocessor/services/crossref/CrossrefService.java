@@ -26,6 +26,9 @@ import at.roesel.oadataprocessor.model.crossref.CrossrefPrefix;
 import at.roesel.oadataprocessor.model.crossref.CrossrefSource;
 import at.roesel.oadataprocessor.model.crossref.CrossrefWork;
 
+import java.util.Collection;
+import java.util.List;
+
 /*
     Crossref Unified Resource API Documentation
     https://api.crossref.org/swagger-ui/index.html
@@ -42,6 +45,9 @@ public interface CrossrefService {
 
     CrossrefSource readCrossrefSourcefromDB(String doi);
 
+    // stored records of several dois with one query, dois without record are missing in the result
+    List<CrossrefSource> readCrossrefSourcesfromDB(Collection<String> dois);
+
     void deleteCrossrefSourcefromDB(String doi);
     /*
      read from database or fetch from Crossref
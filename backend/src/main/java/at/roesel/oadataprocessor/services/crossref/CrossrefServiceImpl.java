@@ -29,12 +29,16 @@ import at.roesel.oadataprocessor.model.crossref.CrossrefPrefix;
 import at.roesel.oadataprocessor.model.crossref.CrossrefSource;
 import at.roesel.oadataprocessor.model.crossref.CrossrefWork;
 import at.roesel.oadataprocessor.persistance.CrossrefRepository;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Component
@@ -48,6 +52,9 @@ public class CrossrefServiceImpl implements CrossrefService, InitializingBean {
     @Autowired
     private CrossrefRepository crossrefRepository;
 
+    @Autowired
+    private ProviderHttpClients providerHttpClients;
+
     private CrossrefClient restClient;
 
 
@@ -56,7 +63,7 @@ public class CrossrefServiceImpl implements CrossrefService, InitializingBean {
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        restClient = new CrossrefClient(appSettings.getContactEMail());
+        restClient = new CrossrefClient(appSettings.getContactEMail(), providerHttpClients.get(ProviderHttpClients.crossref));
     }
 
     @Override
@@ -85,6 +92,12 @@ public class CrossrefServiceImpl implements CrossrefService, InitializingBean {
         return crossrefSourceOpt.orElse(null);
     }
 
+    public List<CrossrefSource> readCrossrefSourcesfromDB(Collection<String> dois) {
+        List<CrossrefSource> crossrefSources = new ArrayList<>();
+        crossrefRepository.findAllById(dois).forEach(crossrefSources::add);
+        return crossrefSources;
+    }
+
     public CrossrefWork getCrossrefWork(String doi) {
         CrossrefWork result = null;
         CrossrefSource crossrefSource = readCrossrefSourcefromDB(doi);
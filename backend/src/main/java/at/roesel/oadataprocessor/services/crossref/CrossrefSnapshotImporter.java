@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.crossref;
+
+import at.roesel.oadataprocessor.model.SourceStatus;
+import at.roesel.oadataprocessor.model.crossref.CrossrefWork;
+import at.roesel.oadataprocessor.persistance.PublicationSourceRepository;
+import at.roesel.oadataprocessor.persistance.conversion.CrossrefWorkConverter;
+import at.roesel.oadataprocessor.services.common.DoiCacheSnapshotImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static at.roesel.common.StringSupport.hasValue;
+
+/*
+ * Imports the works of a Crossref public data file snapshot into the crossref table,
+ * so that the works don't have to be fetched one by one from the Crossref API.
+ * Works whose cached record is not older than the indexing date of the snapshot record are skipped.
+ */
+@Component
+public class CrossrefSnapshotImporter extends DoiCacheSnapshotImporter<CrossrefWork> {
+
+    private final Logger logger = LoggerFactory.getLogger(CrossrefSnapshotImporter.class);
+
+    @Autowired
+    private PublicationSourceRepository publicationSourceRepository;
+
+    // path of a snapshot file or of a directory with snapshot files
+    @Value("${crossref.snapshot.path:}")
+    private String snapshotPath;
+
+    @Value("${crossref.snapshot.batchsize:1000}")
+    private int batchSize;
+
+    // import only works whose DOI belongs to a publication source
+    @Value("${crossref.snapshot.knownDoisOnly:true}")
+    private boolean knownDoisOnly;
+
+    private final CrossrefWorkConverter converter = new CrossrefWorkConverter();
+
+    public CrossrefSnapshotImporter() {
+        super(CrossrefWork.class, "crossref");
+    }
+
+    public void importSnapshot() {
+        if (!hasValue(snapshotPath)) {
+            logger.warn("no Crossref snapshot path configured (crossref.snapshot.path)");
+            return;
+        }
+        Set<String> dois = null;
+        if (knownDoisOnly) {
+            dois = toLowerCase(publicationSourceRepository.findAllDois());
+            logger.info("{} known DOIs", dois.size());
+        }
+        importSnapshot(Path.of(snapshotPath), dois, batchSize);
+    }
+
+    @Override
+    protected String doi(CrossrefWork work) {
+        return work.doi;
+    }
+
+    @Override
+    protected long recordTimestamp(CrossrefWork work) {
+        return work.indexed != null ? work.indexed.timestamp : 0;
+    }
+
+    @Override
+    protected String toDatabaseColumn(CrossrefWork work) {
+        return converter.convertToDatabaseColumn(work);
+    }
+
+    @Override
+    protected SourceStatus status(CrossrefWork work) {
+        return work.status();
+    }
+}
@@ -24,6 +24,7 @@ package at.roesel.oadataprocessor.services.doaj;
 
 import at.roesel.oadataprocessor.model.doaj.DoajJsonResponse;
 import at.roesel.oadataprocessor.model.doaj.DoajPayload;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,7 +46,11 @@ public class DoajClient extends RestClient {
     private int requestCount;
 
     public DoajClient(String mailTo) {
-        super();
+        this(mailTo, null);
+    }
+
+    public DoajClient(String mailTo, ProviderHttpClient provider) {
+        super(provider);
         this.mailTo = mailTo;
         userAgent = String.format("%s (mailto:%s)", clientName, mailTo);
         requestCount = 0;
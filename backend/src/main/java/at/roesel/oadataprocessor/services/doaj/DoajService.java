@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.services.doaj;
 
 import at.roesel.oadataprocessor.model.doaj.DoajJournal;
+import at.roesel.oadataprocessor.model.doaj.DoajJournalEntity;
 
 import java.util.List;
 
@@ -31,4 +32,7 @@ import java.util.List;
  */
 public interface DoajService {
     DoajJournal searchForDoaj(List<String> issns);
+
+    // only the journals stored in the database, without request to doaj.org
+    DoajJournalEntity searchDatabaseForDoaj(List<String> issns);
 }
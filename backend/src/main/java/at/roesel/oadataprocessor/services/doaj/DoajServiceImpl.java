@@ -28,6 +28,7 @@ import at.roesel.oadataprocessor.model.doaj.DoajJournal;
 import at.roesel.oadataprocessor.model.doaj.DoajJournalEntity;
 import at.roesel.oadataprocessor.model.doaj.DoajPayload;
 import at.roesel.oadataprocessor.persistance.DoajRepository;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,12 +56,18 @@ public class DoajServiceImpl implements DoajService, InitializingBean {
     @Autowired
     private DoajRepository doajRepository;
 
+    @Autowired
+    private ProviderHttpClients providerHttpClients;
+
+    private DoajClient doajClient;
+
     @Override
     public void afterPropertiesSet() throws Exception {
         issnCache = Caffeine.newBuilder()
                 .expireAfterWrite(7, TimeUnit.DAYS)
                 .maximumSize(10000)
                 .build();
+        doajClient = new DoajClient(appSettings.getContactEMail(), providerHttpClients.get(ProviderHttpClients.doaj));
     }
 
     public DoajJournal searchForDoaj(List<String> issns) {
@@ -116,6 +123,7 @@ public class DoajServiceImpl implements DoajService, InitializingBean {
         return null;
     }
 
+    @Override
     public DoajJournalEntity searchDatabaseForDoaj(List<String> issns) {
         for (String issn : issns) {
             Iterable<DoajJournalEntity> journals = doajRepository.searchByIssn(issn);
@@ -128,7 +136,6 @@ public class DoajServiceImpl implements DoajService, InitializingBean {
     }
 
     public DoajJournalEntity searchOnlineForDoaj(List<String> issns) {
-        DoajClient doajClient = new DoajClient(appSettings.getContactEMail());
         for (String issn : issns) {
             if (issnCache.getIfPresent(issn) != null) {
                 continue;
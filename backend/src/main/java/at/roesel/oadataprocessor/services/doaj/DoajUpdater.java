@@ -27,38 +27,54 @@ import at.roesel.oadataprocessor.model.doaj.DoajJournalEntity;
 import at.roesel.oadataprocessor.model.doaj.DoajPayload;
 import at.roesel.oadataprocessor.persistance.DoajRepository;
 import at.roesel.oadataprocessor.persistance.conversion.ObjectMapperFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
 import de.danielbechler.diff.ObjectDiffer;
 import de.danielbechler.diff.ObjectDifferBuilder;
 import de.danielbechler.diff.node.DiffNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+/*
+ * Imports the DOAJ journal dump (https://doaj.org/docs/public-data-dump/) into the table doaj.
+ * The journals are read one after the other from the JSON arrays of the dump,
+ * new and changed journals are written in batches, each batch in one transaction.
+ */
 public class DoajUpdater {
 
+    public static final int defaultBatchSize = 500;
+
     private final Logger logger = LoggerFactory.getLogger(DoajUpdater.class);
 
     private final DoajRepository doajRepository;
     private final Map<String, DoajJournalEntity> journalMap;
+    private final int batchSize;
 
-    private final ObjectMapper mapper;
-    private final CollectionType javaType;
+    private final ObjectReader payloadReader;
 
     private final ObjectDiffer entityDiffer;
 
+    private final List<DoajJournalEntity> batch = new ArrayList<>();
+    private int savedCount = 0;
+
     public DoajUpdater(DoajRepository doajRepository, Map<String, DoajJournalEntity> journalMap) {
+        this(doajRepository, journalMap, defaultBatchSize);
+    }
+
+    public DoajUpdater(DoajRepository doajRepository, Map<String, DoajJournalEntity> journalMap, int batchSize) {
         this.doajRepository = doajRepository;
         this.journalMap = journalMap;
+        this.batchSize = Math.max(1, batchSize);
 
-        mapper = ObjectMapperFactory.create();
-        javaType = mapper.getTypeFactory()
-                .constructCollectionType(List.class, DoajPayload.class);
+        payloadReader = ObjectMapperFactory.create().readerFor(DoajPayload.class);
 
         ObjectDifferBuilder builder = ObjectDifferBuilder.startBuilding();
         builder.inclusion().exclude().propertyName("created")
@@ -70,30 +86,16 @@ public class DoajUpdater {
         entityDiffer = builder.build();
     }
 
-    // https://stackoverflow.com/questions/54817985/how-to-parse-a-huge-json-file-without-loading-it-in-memory
+    /*
+     * jsonFile: a file of the dump with a JSON array of journals or the folder of the unpacked dump,
+     * the *.json files of the folder are imported in the order of their names.
+     */
     public void importDoajRecordsFromJson(String jsonFile) {
         try {
-            List<DoajPayload> results = mapper.readValue(new File(jsonFile), javaType);
-            for (DoajPayload payload : results) {
-                DoajJournalEntity journal = payload.buildJournal();
-                try {
-                    DoajJournalEntity existingJournal = journalMap.get(journal.getId());
-                    if (existingJournal == null) {
-                        doajRepository.save(journal);
-                    } else {
-                        boolean hasDifference = compareRecords(existingJournal, journal);
-                        if (hasDifference) {
-                            // Journal aktualisieren
-                            journal.setCreated(existingJournal.getCreated());
-                            doajRepository.save(journal);
-                        }
-                        // aus der Map entfernen als Kennzeichen dafür, dass es noch vorhanden ist
-                        journalMap.remove(journal.getId());
-                    }
-                } catch (Exception e) {
-                    logger.error(e.getMessage(), e);
-                }
+            for (Path file : jsonFiles(Path.of(jsonFile))) {
+                importFile(file);
             }
+            flush();
             // übrig gebliebene Journale als gelöscht markieren
             for (DoajJournalEntity entity : journalMap.values()) {
                 // wenn das Journal bereits gelöscht wurde, dann uber
@@ -101,13 +103,87 @@ public class DoajUpdater {
                     continue;
                 }
                 entity.setDeleted(SystemTime.currentTimeMillis());
-                doajRepository.save(entity);
+                add(entity);
             }
+            flush();
+            logger.info("DOAJ import: {} journals written", savedCount);
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
         }
     }
 
+    private void importFile(Path file) throws IOException {
+        logger.debug("DOAJ import of {}", file);
+        // the elements of the JSON array are read one at a time
+        try (MappingIterator<DoajPayload> iterator = payloadReader.readValues(file.toFile())) {
+            while (iterator.hasNextValue()) {
+                DoajPayload payload = iterator.nextValue();
+                try {
+                    importJournal(payload.buildJournal());
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void importJournal(DoajJournalEntity journal) {
+        DoajJournalEntity existingJournal = journalMap.get(journal.getId());
+        if (existingJournal == null) {
+            add(journal);
+        } else {
+            boolean hasDifference = compareRecords(existingJournal, journal);
+            if (hasDifference) {
+                // Journal aktualisieren
+                journal.setCreated(existingJournal.getCreated());
+                add(journal);
+            }
+            // aus der Map entfernen als Kennzeichen dafür, dass es noch vorhanden ist
+            journalMap.remove(journal.getId());
+        }
+    }
+
+    private void add(DoajJournalEntity journal) {
+        batch.add(journal);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            doajRepository.saveAll(batch);
+            savedCount += batch.size();
+        } catch (Exception e) {
+            // the journals are saved one by one, so that only the faulty ones are missing
+            logger.warn("DOAJ batch failed, saving the journals separately: {}", e.getMessage());
+            for (DoajJournalEntity journal : batch) {
+                try {
+                    doajRepository.save(journal);
+                    savedCount++;
+                } catch (Exception ex) {
+                    logger.error(ex.getMessage(), ex);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private static List<Path> jsonFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
     private boolean compareRecords(DoajJournalEntity existingRecord, DoajJournalEntity newRecord) {
         boolean changes = false;
         DiffNode diff = entityDiffer.compare(newRecord, existingRecord);
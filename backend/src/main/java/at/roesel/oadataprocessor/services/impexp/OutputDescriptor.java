@@ -66,6 +66,14 @@ public class OutputDescriptor<T> {
         return fields;
     }
 
+    /*
+     * Type of the values of a column for formats with typed columns, by default the type of the field.
+     * Subclasses can declare numbers, which are stored as text.
+     */
+    public Class<?> valueType(int column) {
+        return fields.get(column).getType();
+    }
+
     public List<String> cells(T object) {
         List<String> rows = new ArrayList<>();
         for (Field field : fields) {
@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Writes rows in CSV format (RFC 4180, UTF-8, with header line)
+ */
+public class CsvStreamingExporter<T> implements StreamingExporter<T> {
+
+    private final OutputDescriptor<T> outputDescriptor;
+    private final CSVPrinter csvPrinter;
+    private int rowCount = 0;
+
+    public CsvStreamingExporter(OutputStream outputStream, OutputDescriptor<T> outputDescriptor) throws IOException {
+        this.outputDescriptor = outputDescriptor;
+        CSVFormat csvFormat = CSVFormat.Builder.create(CSVFormat.RFC4180)
+                .setHeader(outputDescriptor.getHeaders().toArray(new String[0]))
+                .build();
+        csvPrinter = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), csvFormat);
+    }
+
+    @Override
+    public void add(T row) throws IOException {
+        csvPrinter.printRecord(outputDescriptor.cells(row));
+        rowCount++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        csvPrinter.flush();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        // the output stream is closed by the caller
+    }
+}
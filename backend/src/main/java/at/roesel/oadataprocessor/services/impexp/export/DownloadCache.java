@@ -23,12 +23,14 @@
 package at.roesel.oadataprocessor.services.impexp.export;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.TimeUnit;
 
 /*
  * Cache for publication download results
+ * The cache releases a result when it is removed, the temporary file is deleted when no response uses it anymore.
  */
 @Component
 public class DownloadCache {
@@ -39,6 +41,13 @@ public class DownloadCache {
         cache = Caffeine.newBuilder()
                 .expireAfterAccess(120, TimeUnit.MINUTES)
                 .maximumSize(100)
+                // release the result in the thread, which removes it
+                .executor(Runnable::run)
+                .removalListener((String key, DownloadService.BuildResult value, RemovalCause cause) -> {
+                    if (value != null) {
+                        value.release();
+                    }
+                })
                 .build();
     }
 
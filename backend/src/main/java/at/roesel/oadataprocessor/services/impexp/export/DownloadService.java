@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.services.impexp.export;
 
 import at.roesel.oadataprocessor.components.controller.PublicationSearchFilter;
+import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.Institution;
 import at.roesel.oadataprocessor.model.PublicationFlat;
 import at.roesel.oadataprocessor.model.SourceReferenceFlat;
@@ -32,21 +33,34 @@ import at.roesel.oadataprocessor.persistance.elastic.ElasticResultHandler;
 import at.roesel.oadataprocessor.services.InstitutionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static at.roesel.common.CollectionSupport.collectionToString;
 import static at.roesel.oadataprocessor.components.openapi.PublicationConverter.addBaseCoarUrl;
 
 @Component
-public class DownloadService {
+public class DownloadService implements InitializingBean {
 
     private final Logger logger = LoggerFactory.getLogger(DownloadService.class);
 
@@ -56,41 +70,118 @@ public class DownloadService {
     @Autowired
     private InstitutionService institutionService;
 
+    @Autowired
+    private AppSettings appSettings;
+
+    // files of the download results are left over from a previous run only if the application was stopped
+    @Override
+    public void afterPropertiesSet() {
+        Path folder = downloadFolder();
+        if (Files.isDirectory(folder)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(folder)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                logger.warn("download folder {} not cleaned: {}", folder, e.getMessage());
+            }
+        }
+    }
 
+    // folder for the temporary files of the download results
+    private Path downloadFolder() {
+        return Paths.get(appSettings.getDataPath(), "download");
+    }
+
+    /*
+     * The download is streamed into a temporary file in the format of the filter options,
+     * the file is deleted when the result is released by the DownloadCache and by all responses (see BuildResult).
+     */
     public BuildResult createDownloadRecords(PublicationSearchFilter filter) {
         BuildResult result = new BuildResult();
+        result.format = DownloadFormat.fromString(filter.options != null ? filter.options.format : null);
         try {
-            Map<String, Institution> institutionMap = institutionService.institutionMap();
-
-            PublicationResultHandler handler = new PublicationResultHandler(institutionMap, filter.options);
-            publicationAccessService.readPublicationsFromElastic(filter, handler);
-
-
-/*
-            // export in CSV format
-            try (CharArrayWriter writer = new CharArrayWriter()) {
-                CsvSupport.exportCsv(writer, new PublicationOutputDescriptor(), rows);
-                result.resource = new ByteArrayResource(writer.toString().getBytes(StandardCharsets.UTF_8));
-            } catch (Exception e) {
-                logger.error(e.getMessage(), e);
-            }
- */
-
-            // export in xlsx format
-            try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                ExcelStreamingExporter.export(outputStream, new PublicationOutputDescriptor(filter.options), handler.getRows());
-                result.resource = new ByteArrayResource(outputStream.toByteArray());
+            Path folder = Files.createDirectories(downloadFolder());
+            result.file = Files.createTempFile(folder, "publications-", result.format.getExtension());
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(result.file))) {
+                int count = write(filter, result.format, outputStream);
+                logger.debug("{} rows written to {}", count, result.file);
             }
+            result.resource = new FileSystemResource(result.file);
+        } catch (Exception e) {
+            result.deleteFile();
+            result.resource = new ByteArrayResource(new byte[0]);
+            result.messages.add(e.getMessage());
+        }
 
+        return result;
+    }
 
+    /*
+     * Exports all publications with all columns into a Parquet file in the folder export of data.path,
+     * the file is written under a temporary name and renamed when it is complete.
+     */
+    public Path exportParquet() {
+        PublicationSearchFilter filter = new PublicationSearchFilter();
+        filter.includeUnknown = true;
+        filter.options = new PublicationSearchFilter.ExcelDownloadOptions();
+        filter.options.includePublicationId = true;
+        filter.options.includeNativeIds = true;
+        filter.options.includeMetaSources = true;
+        filter.options.includeAuthor = true;
+        filter.options.format = DownloadFormat.PARQUET.name();
+
+        Path folder = Paths.get(appSettings.getDataPath(), "export");
+        Path file = folder.resolve("publications_" + LocalDate.now() + DownloadFormat.PARQUET.getExtension());
+        Path tmpFile = folder.resolve(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(folder);
+            int count;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+                count = write(filter, DownloadFormat.PARQUET, outputStream);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("{} publications exported to {}", count, file);
+            return file;
         } catch (Exception e) {
-            if (result.resource == null) {
-                result.resource = new ByteArrayResource(new byte[0]);
+            logger.error("Parquet export failed", e);
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ignored) {
             }
-            result.messages.add(e.getMessage());
+            return null;
         }
+    }
 
-        return result;
+    /*
+     * Writes the publications of the filter in the given format into the output stream.
+     * Each publication is written when it is read from Elasticsearch, the rows are not collected.
+     * @return number of rows
+     */
+    public int write(PublicationSearchFilter filter, DownloadFormat format, OutputStream outputStream) throws IOException {
+        Map<String, Institution> institutionMap = institutionService.institutionMap();
+        try (StreamingExporter<ClassificationOutput> exporter = createExporter(format, outputStream, new PublicationOutputDescriptor(filter.options))) {
+            PublicationResultHandler handler = new PublicationResultHandler(institutionMap, filter.options, row -> {
+                try {
+                    exporter.add(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            publicationAccessService.readPublicationsFromElastic(filter, handler);
+            exporter.finish();
+            return exporter.getRowCount();
+        }
+    }
+
+    private static StreamingExporter<ClassificationOutput> createExporter(DownloadFormat format, OutputStream outputStream,
+                                                                         PublicationOutputDescriptor outputDescriptor) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvStreamingExporter<>(outputStream, outputDescriptor);
+            case NDJSON -> new NdjsonStreamingExporter<>(outputStream, outputDescriptor);
+            case PARQUET -> new ParquetStreamingExporter<>(outputStream, outputDescriptor);
+            default -> new ExcelStreamingExporter<>(outputStream, outputDescriptor);
+        };
     }
 
     private ClassificationOutput buildPublicationOutput(PublicationFlat publication) {
@@ -157,20 +248,59 @@ public class DownloadService {
         return result;
     }
 
+    /*
+     * The temporary file is used by the DownloadCache and by the responses, which send it.
+     * Each user holds a reference, the file is deleted when the last reference is released.
+     */
     public static class BuildResult {
-        public ByteArrayResource resource;
+        public Resource resource;
+        public DownloadFormat format = DownloadFormat.XLSX;
+        // temporary file of the resource, if any
+        public Path file;
         public List<String> messages = new ArrayList<>();
+        // the first reference is held by the creator, e.g. the DownloadCache
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        // false if the file is already released by all users
+        public boolean acquire() {
+            while (true) {
+                int count = references.get();
+                if (count <= 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        public void release() {
+            if (references.decrementAndGet() == 0) {
+                deleteFile();
+            }
+        }
+
+        public void deleteFile() {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(BuildResult.class).warn("temporary file {} not deleted: {}", file, e.getMessage());
+                }
+            }
+        }
     }
 
     private class PublicationResultHandler implements ElasticResultHandler<PublicationFlat> {
-        private final List<ClassificationOutput> rows;
+        private final Consumer<ClassificationOutput> rows;
         private final AtomicInteger count;
         private final Map<String, Institution> institutionMap;
         private final PublicationSearchFilter.ExcelDownloadOptions options;
 
-        public PublicationResultHandler(Map<String, Institution> institutionMap, PublicationSearchFilter.ExcelDownloadOptions options) {
+        public PublicationResultHandler(Map<String, Institution> institutionMap, PublicationSearchFilter.ExcelDownloadOptions options,
+                                        Consumer<ClassificationOutput> rows) {
             this.institutionMap = institutionMap;
-            rows = new ArrayList<>();
+            this.rows = rows;
             count = new AtomicInteger();
             this.options = options;
         }
@@ -185,7 +315,7 @@ public class DownloadService {
                     output.institutionName = institutionName(institutionMap, ref.institutionId);
                     output.institutionCorresponding = ref.corr? "1" : "0";
                     output.nativeId = ref.nativeId;
-                    rows.add(output);
+                    rows.accept(output);
                 }
             } else {
                 count.getAndIncrement();
@@ -194,14 +324,10 @@ public class DownloadService {
                 output.institutionName = collectionToString(buildInstitutionNames(institutionMap, publication.institutions()), ";");
                 output.nativeId = collectionToString(publication.nativeIds(), ";");
                 output.institutionCorresponding = collectionToString(publication.corresponding(), ";");
-                rows.add(output);
+                rows.accept(output);
             }
             return false;
         }
-
-        public List<ClassificationOutput> getRows() {
-            return rows;
-        }
     }
 }
 
@@ -23,7 +23,6 @@
 package at.roesel.oadataprocessor.services.impexp.export;
 
 import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
@@ -32,41 +31,69 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 
-public class ExcelStreamingExporter {
+/*
+ * Writes rows into an xlsx workbook, only the last rowSize rows are kept in memory.
+ * Rows are added one by one with add, finish writes the workbook into the output stream.
+ */
+public class ExcelStreamingExporter<T> implements StreamingExporter<T> {
 
     private final static int rowSize = 100;
 
-    public static <T> void export(OutputStream outputStream, OutputDescriptor<T> outputDescriptor, List<T> rows) throws IOException {
+    private final OutputStream outputStream;
+    private final OutputDescriptor<T> outputDescriptor;
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private int rowNum = 0;
 
-        List<String> headers = outputDescriptor.getHeaders();
-        try (SXSSFWorkbook workbook = new SXSSFWorkbook (rowSize)) {
-            Sheet sheet = workbook.createSheet("publications");
-            // Header
-            Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.size(); i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers.get(i));
-            }
+    public ExcelStreamingExporter(OutputStream outputStream, OutputDescriptor<T> outputDescriptor) {
+        this.outputStream = outputStream;
+        this.outputDescriptor = outputDescriptor;
+        workbook = new SXSSFWorkbook(rowSize);
+        sheet = workbook.createSheet("publications");
+        // Header
+        addCells(outputDescriptor.getHeaders());
+    }
 
-            // Data
-            int rowNum = 1;
+    public static <T> void export(OutputStream outputStream, OutputDescriptor<T> outputDescriptor, List<T> rows) throws IOException {
+        try (ExcelStreamingExporter<T> exporter = new ExcelStreamingExporter<>(outputStream, outputDescriptor)) {
             for (T row : rows) {
-                Row excelRow = sheet.createRow(rowNum++);
-                List<String> cells = outputDescriptor.cells(row);
-                for (int i = 0; i < cells.size(); i++) {
-                    excelRow.createCell(i).setCellValue(cells.get(i));
-                }
+                exporter.add(row);
             }
+            exporter.finish();
+        }
+    }
 
-            // Write the output to a file
-            workbook.write(outputStream);
+    @Override
+    public void add(T row) {
+        addCells(outputDescriptor.cells(row));
+    }
 
-            // Close the workbook
-            try {
-                workbook.close();
-            } catch (IOException e) {
-                // do nothing
-            }
+    private void addCells(List<String> cells) {
+        Row excelRow = sheet.createRow(rowNum++);
+        for (int i = 0; i < cells.size(); i++) {
+            excelRow.createCell(i).setCellValue(cells.get(i));
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowNum - 1;
+    }
+
+    // Write the workbook to the output stream
+    @Override
+    public void finish() throws IOException {
+        workbook.write(outputStream);
+    }
+
+    @Override
+    public void close() {
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            // do nothing
         }
+        // delete the temporary files of the rows which are not kept in memory
+        workbook.dispose();
     }
 }
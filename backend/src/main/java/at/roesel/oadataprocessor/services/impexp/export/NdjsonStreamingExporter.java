@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/*
+ * Writes rows as newline delimited JSON, one object per line with the headers as keys
+ */
+public class NdjsonStreamingExporter<T> implements StreamingExporter<T> {
+
+    private final OutputDescriptor<T> outputDescriptor;
+    private final List<String> headers;
+    private final JsonGenerator generator;
+    private int rowCount = 0;
+
+    public NdjsonStreamingExporter(OutputStream outputStream, OutputDescriptor<T> outputDescriptor) throws IOException {
+        this.outputDescriptor = outputDescriptor;
+        headers = outputDescriptor.getHeaders();
+        generator = new JsonFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // root values are separated by a line feed
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+
+    @Override
+    public void add(T row) throws IOException {
+        List<String> cells = outputDescriptor.cells(row);
+        generator.writeStartObject();
+        for (int i = 0; i < cells.size(); i++) {
+            generator.writeStringField(headers.get(i), cells.get(i));
+        }
+        generator.writeEndObject();
+        rowCount++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rowCount > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            generator.close();
+        } catch (IOException e) {
+            // do nothing
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+ * Writes rows into a Parquet file with parquet-java, the Hadoop file system is not used.
+ * Every column is optional, empty cells are written as null. Fields with numbers or booleans
+ * are written as INT32, INT64, DOUBLE or BOOLEAN columns, all other fields as UTF-8 strings.
+ * Only the pages of the current row group are kept in memory.
+ */
+public class ParquetStreamingExporter<T> implements StreamingExporter<T> {
+
+    // default limit of a row group, analytics tools work best with large row groups
+    public static final long defaultRowGroupSize = 64L * 1024 * 1024;
+
+    private final OutputDescriptor<T> outputDescriptor;
+    private final ParquetWriter<List<String>> writer;
+    private int rowCount = 0;
+    private boolean closed = false;
+
+    public ParquetStreamingExporter(OutputStream outputStream, OutputDescriptor<T> outputDescriptor) throws IOException {
+        this(outputStream, outputDescriptor, defaultRowGroupSize);
+    }
+
+    public ParquetStreamingExporter(OutputStream outputStream, OutputDescriptor<T> outputDescriptor, long rowGroupSize) throws IOException {
+        this.outputDescriptor = outputDescriptor;
+        writer = new Builder(new StreamOutputFile(outputStream), schema(outputDescriptor))
+                .withConf(new PlainParquetConfiguration())
+                .withCompressionCodec(CompressionCodecName.GZIP)
+                .withRowGroupSize(rowGroupSize)
+                .build();
+    }
+
+    @Override
+    public void add(T row) throws IOException {
+        writer.write(outputDescriptor.cells(row));
+        rowCount++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        // writes the last row group and the footer
+        closed = true;
+        writer.close();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // do nothing
+            }
+        }
+    }
+
+    static MessageType schema(OutputDescriptor<?> outputDescriptor) {
+        List<String> headers = outputDescriptor.getHeaders();
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        for (int i = 0; i < headers.size(); i++) {
+            Class<?> valueType = outputDescriptor.valueType(i);
+            if (valueType == int.class || valueType == Integer.class || valueType == short.class || valueType == Short.class) {
+                builder.optional(PrimitiveTypeName.INT32).named(headers.get(i));
+            } else if (valueType == long.class || valueType == Long.class) {
+                builder.optional(PrimitiveTypeName.INT64).named(headers.get(i));
+            } else if (valueType == double.class || valueType == Double.class || valueType == float.class || valueType == Float.class) {
+                builder.optional(PrimitiveTypeName.DOUBLE).named(headers.get(i));
+            } else if (valueType == boolean.class || valueType == Boolean.class) {
+                builder.optional(PrimitiveTypeName.BOOLEAN).named(headers.get(i));
+            } else {
+                builder.optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(headers.get(i));
+            }
+        }
+        return builder.named("schema");
+    }
+
+    private static class Builder extends ParquetWriter.Builder<List<String>, Builder> {
+        private final MessageType schema;
+
+        Builder(OutputFile file, MessageType schema) {
+            super(file);
+            this.schema = schema;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<List<String>> getWriteSupport(Configuration conf) {
+            return new CellWriteSupport(schema);
+        }
+
+        @Override
+        protected WriteSupport<List<String>> getWriteSupport(ParquetConfiguration conf) {
+            return new CellWriteSupport(schema);
+        }
+    }
+
+    /*
+     * Writes the cells of a row, the text of a cell is converted to the type of its column.
+     * Cells with text that is no valid number are written as null.
+     */
+    private static class CellWriteSupport extends WriteSupport<List<String>> {
+        private final MessageType schema;
+        private RecordConsumer recordConsumer;
+
+        CellWriteSupport(MessageType schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, new HashMap<>());
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(schema, new HashMap<>());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.recordConsumer = recordConsumer;
+        }
+
+        @Override
+        public void write(List<String> cells) {
+            recordConsumer.startMessage();
+            int count = Math.min(cells.size(), schema.getFieldCount());
+            for (int i = 0; i < count; i++) {
+                String cell = cells.get(i);
+                if (cell == null || cell.isEmpty()) {
+                    continue;
+                }
+                Type field = schema.getType(i);
+                try {
+                    switch (field.asPrimitiveType().getPrimitiveTypeName()) {
+                        case INT32 -> {
+                            int value = Integer.parseInt(cell.trim());
+                            recordConsumer.startField(field.getName(), i);
+                            recordConsumer.addInteger(value);
+                        }
+                        case INT64 -> {
+                            long value = Long.parseLong(cell.trim());
+                            recordConsumer.startField(field.getName(), i);
+                            recordConsumer.addLong(value);
+                        }
+                        case DOUBLE -> {
+                            // amounts are formatted with the default locale
+                            double value = Double.parseDouble(cell.trim().replace(',', '.'));
+                            recordConsumer.startField(field.getName(), i);
+                            recordConsumer.addDouble(value);
+                        }
+                        case BOOLEAN -> {
+                            boolean value = Boolean.parseBoolean(cell.trim());
+                            recordConsumer.startField(field.getName(), i);
+                            recordConsumer.addBoolean(value);
+                        }
+                        default -> {
+                            recordConsumer.startField(field.getName(), i);
+                            recordConsumer.addBinary(Binary.fromString(cell));
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                recordConsumer.endField(field.getName(), i);
+            }
+            recordConsumer.endMessage();
+        }
+    }
+
+    /*
+     * Output file on the output stream of the download or export, the stream is not closed.
+     */
+    private static class StreamOutputFile implements OutputFile {
+        private final OutputStream outputStream;
+
+        StreamOutputFile(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position = 0;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    outputStream.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    outputStream.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    outputStream.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    outputStream.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
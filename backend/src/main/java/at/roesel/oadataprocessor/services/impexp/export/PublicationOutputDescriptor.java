@@ -70,6 +70,14 @@ public class PublicationOutputDescriptor extends OutputDescriptor<Classification
         }).toList());
     }
 
+    @Override
+    public Class<?> valueType(int column) {
+        return switch (getHeaders().get(column)) {
+            case "costs" -> Double.class;
+            case "embargo.time" -> Integer.class;
+            default -> super.valueType(column);
+        };
+    }
 
     @Override
     protected String mapField(String fieldName) {
@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.oaipmh;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/*
+ * Removes characters, which are not allowed in XML, while reading.
+ * Allowed are #x9, #xA, #xD, #x20-#xD7FF and #xE000-#xFFFD, surrogates are removed too.
+ */
+class InvalidXmlCharFilterReader extends FilterReader {
+
+    private boolean charsRemoved = false;
+
+    InvalidXmlCharFilterReader(Reader in) {
+        super(in);
+    }
+
+    static boolean isValidXmlChar(char c) {
+        return c == 0x9 || c == 0xA || c == 0xD
+                || (c >= 0x20 && c <= 0xD7FF)
+                || (c >= 0xE000 && c <= 0xFFFD);
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (true) {
+            int c = in.read();
+            if (c == -1 || isValidXmlChar((char) c)) {
+                return c;
+            }
+            charsRemoved = true;
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        while (true) {
+            int count = in.read(cbuf, off, len);
+            if (count <= 0) {
+                return count;
+            }
+            int pos = off;
+            for (int i = off; i < off + count; i++) {
+                if (isValidXmlChar(cbuf[i])) {
+                    cbuf[pos++] = cbuf[i];
+                }
+            }
+            if (pos - off < count) {
+                charsRemoved = true;
+            }
+            // read again, if all characters were removed, because 0 would not signal the end of the stream
+            if (pos > off) {
+                return pos - off;
+            }
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && read() != -1) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset not supported");
+    }
+
+    // true if invalid characters were removed
+    boolean isCharsRemoved() {
+        return charsRemoved;
+    }
+}
@@ -22,6 +22,11 @@
 
 package at.roesel.oadataprocessor.services.oaipmh;
 
+import at.roesel.oadataprocessor.model.oaipmh.jabx.OAIPMHtype;
+
+import javax.xml.bind.JAXBElement;
+import java.io.StringReader;
+
 import static at.roesel.oadataprocessor.support.FileSupport.nameFromUrl;
 import static at.roesel.oadataprocessor.support.FileSupport.readStringFromFile;
 
@@ -50,5 +55,10 @@ public class OaiPmhImporterFile extends OaiPmhImporterImpl {
         return contents;
     }
 
+    @Override
+    protected JAXBElement<OAIPMHtype> fetchResponse(String requestUrl) {
+        return unmarshal(new StringReader(fetchXmlResponse(requestUrl)), requestUrl);
+    }
+
 
 }
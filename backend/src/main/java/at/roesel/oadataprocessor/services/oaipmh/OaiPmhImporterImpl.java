@@ -33,20 +33,25 @@ import at.roesel.oadataprocessor.support.FileSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.converter.StringHttpMessageConverter;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import static at.roesel.oadataprocessor.support.FileSupport.nameFromUrl;
 
@@ -66,6 +71,9 @@ public class OaiPmhImporterImpl extends RestClient implements OaiPmhImporter {
 
     private final static String verbArg = "?verb=";
 
+    // JAXBContext is thread safe and expensive to create, so it is shared by all importers
+    private static JAXBContext jaxbContext;
+
     protected String url;
     protected boolean saveXml = false;
     protected String dataPath;
@@ -101,22 +109,19 @@ public class OaiPmhImporterImpl extends RestClient implements OaiPmhImporter {
 
     @Override
     public IdentifyType identify() {
-        String xmlContent = fetchXmlResponse(url + verbArg + verbListIdentify);
-        JAXBElement<OAIPMHtype> response = unmarshal(xmlContent);
+        JAXBElement<OAIPMHtype> response = fetchResponse(url + verbArg + verbListIdentify);
         return response.getValue().getIdentify();
     }
 
     @Override
     public List<MetadataFormatType> listMetadataFormats(String identifier) {
-        String xmlContent = fetchXmlResponse(url + verbArg + verbListMetadataFormats + "&identifier=" + identifier);
-        JAXBElement<OAIPMHtype> response = unmarshal(xmlContent);
+        JAXBElement<OAIPMHtype> response = fetchResponse(url + verbArg + verbListMetadataFormats + "&identifier=" + identifier);
         return response.getValue().getListMetadataFormats().getMetadataFormat();
     }
 
     @Override
     public List<SetType> listSets() {
-        String xmlContent = fetchXmlResponse(url + verbArg + verbListSets);
-        JAXBElement<OAIPMHtype> response = unmarshal(xmlContent);
+        JAXBElement<OAIPMHtype> response = fetchResponse(url + verbArg + verbListSets);
         return response.getValue().getListSets().getSet();
     }
 
@@ -136,8 +141,7 @@ public class OaiPmhImporterImpl extends RestClient implements OaiPmhImporter {
         urlBuilder.append(identifier);
         String requestUrl = urlBuilder.toString();
 
-        String xmlContent = fetchXmlResponse(requestUrl);
-        JAXBElement<OAIPMHtype> response = unmarshal(xmlContent);
+        JAXBElement<OAIPMHtype> response = fetchResponse(requestUrl);
         if (response.getValue() != null && response.getValue().getGetRecord() != null) {
             return response.getValue().getGetRecord().getRecord();
         } else {
@@ -204,26 +208,23 @@ public class OaiPmhImporterImpl extends RestClient implements OaiPmhImporter {
 
         int count = 1;
         while (true) {
-            String xmlContent = null;
-            try {
-                xmlContent = fetchXmlResponse(requestUrl);
-            } catch (Exception e) {
-                logger.error("url: {}\t{}", requestUrl, e.getMessage());
-                throw new RuntimeException(e);
-            }
-
-            if (isSaveXml()) {
-                FileSupport.writeStringToFile(String.format(path, count), xmlContent);
-            }
-            count++;
-
             JAXBElement<OAIPMHtype> response = null;
             try {
-                response = unmarshal(clean(xmlContent, requestUrl));
+                if (isSaveXml()) {
+                    String xmlContent = fetchXmlResponse(requestUrl);
+                    FileSupport.writeStringToFile(String.format(path, count), xmlContent);
+                    response = unmarshal(new StringReader(xmlContent), requestUrl);
+                } else {
+                    response = fetchResponse(requestUrl);
+                }
             } catch (OaiPmhApiException e) {
                 logger.warn("url: {}\t{}", requestUrl, e.getMessage());
                 break;
+            } catch (Exception e) {
+                logger.error("url: {}\t{}", requestUrl, e.getMessage());
+                throw new RuntimeException(e);
             }
+            count++;
 
             if (response == null) {
                 break;
@@ -277,15 +278,45 @@ public class OaiPmhImporterImpl extends RestClient implements OaiPmhImporter {
     }
 
     /*
-     * transforms xmlContent to a Java object
+     * fetches the response and transforms it while reading to a Java object,
+     * without loading the whole response into a String
      */
-    private JAXBElement<OAIPMHtype> unmarshal(String xmlContent) {
+    protected JAXBElement<OAIPMHtype> fetchResponse(String requestUrl) {
+        // RestTemplate encodes the URL, so we may not encode it ourself
+        return restTemplate.execute(requestUrl, HttpMethod.GET, null,
+                response -> unmarshal(responseReader(response), requestUrl));
+    }
+
+    private Reader responseReader(ClientHttpResponse response) throws IOException {
+        // like StringHttpMessageConverter above, UTF-8 if the header defines no character set
+        Charset charset = StandardCharsets.UTF_8;
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null && contentType.getCharset() != null) {
+            charset = contentType.getCharset();
+        }
+        return new InputStreamReader(response.getBody(), charset);
+    }
+
+    private static synchronized JAXBContext jaxbContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(OAIPMHtype.class, OaiDcType.class);
+        }
+        return jaxbContext;
+    }
+
+    /*
+     * transforms the xml content to a Java object, invalid xml characters are removed
+     */
+    protected JAXBElement<OAIPMHtype> unmarshal(Reader xmlContent, String requestUrl) {
         JAXBElement<OAIPMHtype> response = null;
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(OAIPMHtype.class, OaiDcType.class);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            StringReader reader = new StringReader(xmlContent);
+            // Unmarshaller is not thread safe, so a new one is needed for each call
+            Unmarshaller unmarshaller = jaxbContext().createUnmarshaller();
+            InvalidXmlCharFilterReader reader = new InvalidXmlCharFilterReader(xmlContent);
             response = (JAXBElement<OAIPMHtype>) unmarshaller.unmarshal(reader);
+            if (reader.isCharsRemoved()) {
+                logger.warn("removed invalid xml characters in contents of response from {}", requestUrl);
+            }
             OAIPMHtype oaipmHtype = response.getValue();
             if (oaipmHtype == null) {
                 throw new RuntimeException("no OAIPMHtype received in response");
@@ -306,17 +337,6 @@ public class OaiPmhImporterImpl extends RestClient implements OaiPmhImporter {
         return response;
     }
 
-    // Pattern to match invalid XML characters
-    private static final Pattern INVALID_XML_CHARS = Pattern.compile("[^\\u0009\\u000A\\u000D\\u0020-\\uD7FF\\uE000-\\uFFFD\\u10000-\\u10FFFF]");
-
-    private String clean(String contents, String requestUrl) {
-        String result = INVALID_XML_CHARS.matcher(contents).replaceAll("");
-        if (!result.equals(contents)) {
-            logger.warn("removed invalid xml characters in contents of response from {}", requestUrl);
-        }
-        return result;
-    }
-
     private static class CollectFirstResultsResponseHandler<T> implements ResultResponseHandler<T> {
 
         private final List<T> results = new ArrayList<>();
@@ -27,6 +27,7 @@ import at.roesel.oadataprocessor.model.openalex.OpenAlexPublisherResponse;
 import at.roesel.oadataprocessor.model.openalex.OpenAlexWork;
 import at.roesel.oadataprocessor.model.openalex.OpenAlexWorkResponse;
 import at.roesel.oadataprocessor.persistance.conversion.OpenAlexWorkConverter;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import at.roesel.oadataprocessor.services.common.CollectAllResultsResponseHandler;
 import at.roesel.oadataprocessor.services.common.ResultResponseHandler;
@@ -38,6 +39,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -47,14 +49,27 @@ public class OpenAlexClient extends RestClient {
 
     private final Logger logger = LoggerFactory.getLogger(OpenAlexClient.class);
 
-    private final static String apiUrl = "https://api.openalex.org/";
+    private final static String defaultApiUrl = "https://api.openalex.org/";
 
+    // maximum number of values in an OR filter of the OpenAlex API
+    public final static int maxFilterValues = 100;
+
+    private final String apiUrl;
     private final String mailTo;
 
     private final OpenAlexWorkConverter openAlexWorkConverter = new OpenAlexWorkConverter();
 
     public OpenAlexClient(String contactMail) {
-        super();
+        this(contactMail, null);
+    }
+
+    public OpenAlexClient(String contactMail, ProviderHttpClient provider) {
+        this(contactMail, provider, defaultApiUrl);
+    }
+
+    OpenAlexClient(String contactMail, ProviderHttpClient provider, String apiUrl) {
+        super(provider);
+        this.apiUrl = apiUrl;
 
         if (contactMail != null) {
             mailTo = "mailto=" + contactMail;
@@ -125,41 +140,68 @@ public class OpenAlexClient extends RestClient {
         if (mailTo != null) {
             cmd += "&" + mailTo;
         }
-        cmd += "&cursor=";
         try {
-            // Cursor paging is a more advanced method when you need to retrieve results over 10,000 records. Request a cursor by appending cursor=* to any endpoint.
-            int offset = 0;
-            String cursor = "*";
-            while (true) {
-                String url = apiUrl + cmd + cursor;
-                logger.debug("url:" + url);
-                ResponseEntity<OpenAlexWorkResponse> responseEntity = restTemplate.exchange(
-                        url, HttpMethod.GET, null, OpenAlexWorkResponse.class);
-                OpenAlexWorkResponse response = responseEntity.getBody();
-                if (response == null || response.results == null || response.results.isEmpty()) {
-                    logger.debug("response or response results is null");
-                    break;
-                }
-                if (offset == 0) {
-                    logger.debug("Number of records: {}", response.meta.get("count"));
-                }
-                boolean stop = resultResponseHandler.handleResponse(response.results);
-                if (stop) {
-                    break;
-                }
-                cursor = response.meta.get("next_cursor");
-                if (cursor == null || cursor.isEmpty()) {
-                    break;
-                }
-                offset += pageSize;
-            }
-
+            fetchWorksWithCursor(cmd, pageSize, resultResponseHandler);
         } catch (RestClientException e) {
             logger.error(e.getMessage(), e);
         }
 
     }
 
+    /*
+     * Fetches the works for several DOIs with one request per group, the DOIs are combined with OR in the filter.
+     * The DOIs must not contain characters of the filter syntax (',', '|') or of the query ('&', '#', '+', '%').
+     * DOIs without a work in OpenAlex are missing in the result, the DOIs of the works are URLs (https://doi.org/...).
+     * @throws RestClientException if a request fails
+     */
+    public List<OpenAlexWork> worksByDoi(Collection<String> dois) {
+        if (dois.size() > maxFilterValues) {
+            throw new IllegalArgumentException(String.format("at most %d DOIs per request, %d given", maxFilterValues, dois.size()));
+        }
+        CollectAllResultsResponseHandler<OpenAlexWork> responseHandler = new CollectAllResultsResponseHandler<>();
+        if (dois.isEmpty()) {
+            return responseHandler.getResults();
+        }
+        int pageSize = 200; // Number of results per query
+        String cmd = "works?filter=doi:" + String.join("|", dois);
+        cmd += "&per-page=" + pageSize;
+        if (mailTo != null) {
+            cmd += "&" + mailTo;
+        }
+        fetchWorksWithCursor(cmd, pageSize, responseHandler);
+        return responseHandler.getResults();
+    }
+
+    private void fetchWorksWithCursor(String cmd, int pageSize, ResultResponseHandler<OpenAlexWork> resultResponseHandler) {
+        cmd += "&cursor=";
+        // Cursor paging is a more advanced method when you need to retrieve results over 10,000 records. Request a cursor by appending cursor=* to any endpoint.
+        int offset = 0;
+        String cursor = "*";
+        while (true) {
+            String url = apiUrl + cmd + cursor;
+            logger.debug("url:" + url);
+            ResponseEntity<OpenAlexWorkResponse> responseEntity = restTemplate.exchange(
+                    url, HttpMethod.GET, null, OpenAlexWorkResponse.class);
+            OpenAlexWorkResponse response = responseEntity.getBody();
+            if (response == null || response.results == null || response.results.isEmpty()) {
+                logger.debug("response or response results is null");
+                break;
+            }
+            if (offset == 0) {
+                logger.debug("Number of records: {}", response.meta.get("count"));
+            }
+            boolean stop = resultResponseHandler.handleResponse(response.results);
+            if (stop) {
+                break;
+            }
+            cursor = response.meta.get("next_cursor");
+            if (cursor == null || cursor.isEmpty()) {
+                break;
+            }
+            offset += pageSize;
+        }
+    }
+
     public void fetchPublishers(String parameters, ResultResponseHandler<OpenAlexPublisher> resultResponseHandler) {
 
         int pageSize = 200; // Anzahl der Resultate pro Abfrage
@@ -25,7 +25,9 @@ package at.roesel.oadataprocessor.services.openalex;
 import at.roesel.oadataprocessor.model.openalex.OpenAlexWork;
 import at.roesel.oadataprocessor.services.common.ResultResponseHandler;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /*
  * Services for OpenAlex
@@ -39,4 +41,6 @@ public interface OpenAlexService {
     List<OpenAlexWork> works(String filter);
 
     OpenAlexWork getWork(String doi);
+
+    Map<String, OpenAlexWork> getWorks(Collection<String> dois);
 }
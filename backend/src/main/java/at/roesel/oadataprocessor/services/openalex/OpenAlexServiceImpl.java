@@ -22,22 +22,23 @@
 
 package at.roesel.oadataprocessor.services.openalex;
 
-import at.roesel.common.SleepSupport;
 import at.roesel.common.SystemTime;
 import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.OpenAlexSource;
 import at.roesel.oadataprocessor.model.openalex.OpenAlexWork;
 import at.roesel.oadataprocessor.persistance.OpenAlexRepository;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import at.roesel.oadataprocessor.services.common.ResultResponseHandler;
+import at.roesel.oadataprocessor.support.DoiSupport;
 import jakarta.persistence.NonUniqueResultException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Component
 public class OpenAlexServiceImpl implements OpenAlexService, InitializingBean {
@@ -52,17 +53,31 @@ public class OpenAlexServiceImpl implements OpenAlexService, InitializingBean {
     @Autowired
     private OpenAlexRepository openAlexRepository;
 
+    @Autowired
+    private ProviderHttpClients providerHttpClients;
+
+    // number of DOIs, which are combined in one request by getWorks, at most 100
+    @Value("${openalex.batch.size:50}")
+    private int batchSize;
+
     public OpenAlexServiceImpl() {
     }
 
+    // for tests with a local server
+    OpenAlexServiceImpl(OpenAlexClient restClient, OpenAlexRepository openAlexRepository, int batchSize) {
+        this.restClient = restClient;
+        this.openAlexRepository = openAlexRepository;
+        this.batchSize = batchSize;
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         String contactMail = appSettings.getContactEMail();
-        restClient = new OpenAlexClient(contactMail);
+        restClient = new OpenAlexClient(contactMail, providerHttpClients.get(ProviderHttpClients.openalex));
     }
 
     public OpenAlexWork work(String doi) {
-        SleepSupport.sleep(150);
+        // the request rate is limited by the provider settings for OpenAlex
         return restClient.work(doi);
     }
 
@@ -94,22 +109,10 @@ public class OpenAlexServiceImpl implements OpenAlexService, InitializingBean {
             logger.debug("openAlex data for {} from database", doi);
             OpenAlexSource openAlexSource = openAlexSourceOpt.get();
             saveId = openAlexSource.getId(); // we need this id to overwrite an existing record and avoid duplicates
-            Long updated = openAlexSource.getUpdated();
-            if (updated == null || updated == 0) {
-                updated = openAlexSource.getCreated();
-            }
             if (openAlexSource.getStatus().ok()) {
                 result = openAlexSource.getRecord();
-                // If the query is older than 2 months, try again
-                if (updated < SystemTime.currentTimeMillis() - 2 * 30 * 86400 * 1000L) {
-                    fetch = true;
-                }
-            } else {
-                // If the query is older than one month, try again
-                if (updated < SystemTime.currentTimeMillis() - 30 * 86400 * 1000L) {
-                    fetch = true;
-                }
             }
+            fetch = isOutdated(openAlexSource);
         } else {
             fetch = true;
         }
@@ -117,19 +120,9 @@ public class OpenAlexServiceImpl implements OpenAlexService, InitializingBean {
             logger.debug("fetching openAlex data for {}", doi);
             try {
                 OpenAlexWork work = work(doi);
-                OpenAlexSource source = new OpenAlexSource();
-                source.setDoi(doi);
-                source.setStatus(work.status());
-                source.setRecord(work);
-                if (saveId != null) {
-                    source.setId(saveId);
-                } else {
-                    source.setId(work.id);
-                }
-                if (source.getStatus().ok()) {
+                if (storeWork(doi, work, saveId)) {
                     result = work;
                 }
-                openAlexRepository.save(source);
             } catch (Exception e) {
                 logger.error("error fetching openAlex for doi: {} {}", doi, e.getMessage(), e);
             }
@@ -137,4 +130,128 @@ public class OpenAlexServiceImpl implements OpenAlexService, InitializingBean {
         return result;
     }
 
+    /*
+     * Like getWork for several DOIs, the works which are not in the database or outdated are fetched
+     * with one request per group of DOIs and stored per DOI.
+     * @return the found works by DOI, as given in dois
+     */
+    @Override
+    public Map<String, OpenAlexWork> getWorks(Collection<String> dois) {
+        Map<String, OpenAlexWork> result = new HashMap<>();
+        Map<String, OpenAlexSource> cachedSources = new HashMap<>();
+        Set<String> distinctDois = new LinkedHashSet<>(dois);
+        for (OpenAlexSource source : openAlexRepository.findAllByDoiIn(distinctDois)) {
+            cachedSources.put(lowerCase(source.getDoi()), source);
+        }
+
+        List<String> fetchDois = new ArrayList<>();
+        for (String doi : distinctDois) {
+            OpenAlexSource source = cachedSources.get(lowerCase(doi));
+            if (source != null) {
+                if (source.getStatus().ok()) {
+                    result.put(doi, source.getRecord());
+                }
+                if (!isOutdated(source)) {
+                    continue;
+                }
+            }
+            if (isBatchable(doi)) {
+                fetchDois.add(doi);
+            } else {
+                OpenAlexWork work = getWork(doi);
+                if (work != null) {
+                    result.put(doi, work);
+                }
+            }
+        }
+
+        int groupSize = Math.min(Math.max(batchSize, 1), OpenAlexClient.maxFilterValues);
+        for (int start = 0; start < fetchDois.size(); start += groupSize) {
+            List<String> group = fetchDois.subList(start, Math.min(start + groupSize, fetchDois.size()));
+            logger.debug("fetching openAlex data for {} dois", group.size());
+            List<OpenAlexWork> works;
+            try {
+                works = restClient.worksByDoi(group);
+            } catch (Exception e) {
+                // the works are fetched again with the next call of getWork or getWorks
+                logger.error("error fetching openAlex for {} dois: {}", group.size(), e.getMessage(), e);
+                continue;
+            }
+            Map<String, OpenAlexWork> worksByDoi = new HashMap<>();
+            for (OpenAlexWork work : works) {
+                String workDoi = DoiSupport.extractDoi(work.doi);
+                if (workDoi != null) {
+                    worksByDoi.putIfAbsent(lowerCase(workDoi), work);
+                }
+            }
+            for (String doi : group) {
+                OpenAlexWork work = worksByDoi.get(lowerCase(doi));
+                if (work == null) {
+                    work = notFoundWork();
+                }
+                OpenAlexSource source = cachedSources.get(lowerCase(doi));
+                try {
+                    if (storeWork(doi, work, source != null ? source.getId() : null)) {
+                        result.put(doi, work);
+                    }
+                } catch (Exception e) {
+                    logger.error("error storing openAlex for doi: {} {}", doi, e.getMessage(), e);
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * @return true if the work was found
+     */
+    private boolean storeWork(String doi, OpenAlexWork work, String saveId) {
+        OpenAlexSource source = new OpenAlexSource();
+        source.setDoi(doi);
+        source.setStatus(work.status());
+        source.setRecord(work);
+        if (saveId != null) {
+            source.setId(saveId);
+        } else {
+            source.setId(work.id);
+        }
+        openAlexRepository.save(source);
+        return source.getStatus().ok();
+    }
+
+    private static boolean isOutdated(OpenAlexSource openAlexSource) {
+        Long updated = openAlexSource.getUpdated();
+        if (updated == null || updated == 0) {
+            updated = openAlexSource.getCreated();
+        }
+        if (openAlexSource.getStatus().ok()) {
+            // If the query is older than 2 months, try again
+            return updated < SystemTime.currentTimeMillis() - 2 * 30 * 86400 * 1000L;
+        }
+        // If the query is older than one month, try again
+        return updated < SystemTime.currentTimeMillis() - 30 * 86400 * 1000L;
+    }
+
+    // same as the result of work() for an unknown DOI
+    private static OpenAlexWork notFoundWork() {
+        OpenAlexWork work = new OpenAlexWork();
+        work.id = UUID.randomUUID().toString();
+        work.error = "404 Not Found";
+        return work;
+    }
+
+    // DOIs with characters of the filter or query syntax are fetched one by one
+    static boolean isBatchable(String doi) {
+        for (int i = 0; i < doi.length(); i++) {
+            if (",|&#+%{} ".indexOf(doi.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String lowerCase(String doi) {
+        return doi.toLowerCase(Locale.ROOT);
+    }
+
 }
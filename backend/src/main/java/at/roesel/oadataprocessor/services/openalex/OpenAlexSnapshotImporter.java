@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.openalex;
+
+import at.roesel.oadataprocessor.model.SourceStatus;
+import at.roesel.oadataprocessor.model.openalex.OpenAlexWork;
+import at.roesel.oadataprocessor.persistance.PublicationRepository;
+import at.roesel.oadataprocessor.persistance.conversion.OpenAlexWorkConverter;
+import at.roesel.oadataprocessor.services.common.DoiCacheSnapshotImporter;
+import at.roesel.oadataprocessor.support.DoiSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static at.roesel.common.StringSupport.hasValue;
+
+/*
+ * Imports the works of a local OpenAlex works snapshot (a partition folder or a JSON lines export)
+ * into the openalex table for the DOIs of the publications or of the configured DOI list.
+ * The works are then read from the table instead of being fetched one by one from the OpenAlex API.
+ */
+@Component
+public class OpenAlexSnapshotImporter extends DoiCacheSnapshotImporter<OpenAlexWork> {
+
+    private final Logger logger = LoggerFactory.getLogger(OpenAlexSnapshotImporter.class);
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    // path of a snapshot file or of a folder, e.g. openalex-snapshot/data/works/updated_date=2024-01-01
+    @Value("${openalex.snapshot.path:}")
+    private String snapshotPath;
+
+    // optional file with the DOIs to import, one per line, instead of the DOIs of the publications
+    @Value("${openalex.snapshot.doifile:}")
+    private String doiFile;
+
+    @Value("${openalex.snapshot.batchsize:1000}")
+    private int batchSize;
+
+    private final OpenAlexWorkConverter converter = new OpenAlexWorkConverter();
+
+    public OpenAlexSnapshotImporter() {
+        super(OpenAlexWork.class, "openalex");
+    }
+
+    public void importSnapshot() {
+        if (!hasValue(snapshotPath)) {
+            logger.warn("no OpenAlex snapshot path configured (openalex.snapshot.path)");
+            return;
+        }
+        Set<String> dois;
+        try {
+            dois = doisToImport(doiFile, publicationRepository::findAllDois);
+        } catch (IOException e) {
+            logger.error("error while reading DOI list {}: {}", doiFile, e.getMessage(), e);
+            return;
+        }
+        logger.info("{} DOIs to import", dois.size());
+        importSnapshot(Path.of(snapshotPath), dois, batchSize);
+    }
+
+    // the id of an existing record is kept, see OpenAlexServiceImpl.getWork()
+    @Override
+    protected String insertSql() {
+        return "INSERT INTO openalex (id, doi, title, created, updated, record, status) VALUES (?, ?, ?, ?, NULL, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE title = VALUES(title), updated = VALUES(created), record = VALUES(record), status = VALUES(status)";
+    }
+
+    @Override
+    protected Object[] insertValues(OpenAlexWork work, String doi, long now) {
+        return new Object[]{work.id, doi, work.title, now, toDatabaseColumn(work), status(work).ordinal()};
+    }
+
+    // OpenAlex DOIs are URLs (https://doi.org/...), the table holds the DOI only
+    @Override
+    protected String doi(OpenAlexWork work) {
+        if (work.id == null) {
+            return null;
+        }
+        return DoiSupport.extractDoi(work.doi);
+    }
+
+    @Override
+    protected long recordTimestamp(OpenAlexWork work) {
+        return parseTimestamp(work.updated_date);
+    }
+
+    @Override
+    protected String toDatabaseColumn(OpenAlexWork work) {
+        return converter.convertToDatabaseColumn(work);
+    }
+
+    @Override
+    protected SourceStatus status(OpenAlexWork work) {
+        return work.status();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.openapc;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+/*
+ * Compact index of the DOIs in the table openapc: a sorted array with a 64 bit hash of every normalized DOI.
+ * If contains returns false, then the DOI is not in OpenAPC. If it returns true, then the DOI is in OpenAPC
+ * or (very unlikely) another DOI has the same hash, so the record must be read from the database.
+ */
+class OpenApcDoiIndex {
+
+    private final long[] hashes;
+
+    private OpenApcDoiIndex(long[] hashes) {
+        this.hashes = hashes;
+    }
+
+    static OpenApcDoiIndex build(Collection<String> dois) {
+        long[] hashes = new long[dois.size()];
+        int count = 0;
+        for (String doi : dois) {
+            if (doi != null && !doi.isBlank()) {
+                hashes[count++] = hash(doi);
+            }
+        }
+        Arrays.sort(hashes, 0, count);
+        // remove duplicates
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size == 0 || hashes[size - 1] != hashes[i]) {
+                hashes[size++] = hashes[i];
+            }
+        }
+        return new OpenApcDoiIndex(Arrays.copyOf(hashes, size));
+    }
+
+    boolean contains(String doi) {
+        return doi != null && Arrays.binarySearch(hashes, hash(doi)) >= 0;
+    }
+
+    int size() {
+        return hashes.length;
+    }
+
+    // the DOIs are compared case-insensitive like in the database
+    static String normalize(String doi) {
+        return doi.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // FNV-1a 64 bit hash of the normalized DOI
+    static long hash(String doi) {
+        String normalized = normalize(doi);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
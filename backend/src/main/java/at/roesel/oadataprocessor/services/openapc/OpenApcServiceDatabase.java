@@ -22,6 +22,7 @@
 
 package at.roesel.oadataprocessor.services.openapc;
 
+import at.roesel.common.SystemTime;
 import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.openapc.ApcRow;
 import at.roesel.oadataprocessor.model.openapc.OpenApcEntity;
@@ -38,25 +39,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.*;
 
 import static at.roesel.common.StringSupport.hasValue;
 import static at.roesel.oadataprocessor.model.openapc.OpenApcEntity.AGREEMENT;
 import static at.roesel.oadataprocessor.model.openapc.OpenApcEntity.RECORD;
 import static at.roesel.oadataprocessor.support.CsvSupport.field2boolean;
 import static at.roesel.oadataprocessor.support.CsvSupport.field2int;
-import static org.apache.commons.lang3.reflect.FieldUtils.getField;
-import static org.apache.commons.lang3.reflect.FieldUtils.writeField;
+import static org.apache.commons.lang3.reflect.FieldUtils.getAllFieldsList;
 
 /*
  * Service for apc costs from OpenAPC
@@ -67,6 +68,20 @@ public class OpenApcServiceDatabase implements OpenApcService {
 
     private final static Logger logger = LoggerFactory.getLogger(OpenApcServiceDatabase.class);
 
+    // fields of OpenApcEntity by name, the CSV columns are written into the fields with the same name
+    private static final Map<String, Field> entityFields = buildEntityFields();
+
+    // the columns of the table openapc, which are written by the CSV import
+    private static final String upsertSql = "INSERT INTO openapc (id, institution, period, amount, doi, is_hybrid, publisher, journal_full_title, " +
+            "issn, issn_print, issn_electronic, issn_l, license_ref, indexed_in_crossref, pmid, pmcid, ut, url, doaj, agreement, ta, " +
+            "recordhash, created, updated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) " +
+            "ON DUPLICATE KEY UPDATE institution = VALUES(institution), period = VALUES(period), amount = VALUES(amount), " +
+            "doi = VALUES(doi), is_hybrid = VALUES(is_hybrid), publisher = VALUES(publisher), journal_full_title = VALUES(journal_full_title), " +
+            "issn = VALUES(issn), issn_print = VALUES(issn_print), issn_electronic = VALUES(issn_electronic), issn_l = VALUES(issn_l), " +
+            "license_ref = VALUES(license_ref), indexed_in_crossref = VALUES(indexed_in_crossref), pmid = VALUES(pmid), " +
+            "pmcid = VALUES(pmcid), ut = VALUES(ut), url = VALUES(url), doaj = VALUES(doaj), agreement = VALUES(agreement), " +
+            "ta = VALUES(ta), recordhash = VALUES(recordhash), updated = VALUES(created)";
+
     @Value("${openapc.csv.url.apc}")
     private String openApcCsvUrl;
 
@@ -79,6 +94,22 @@ public class OpenApcServiceDatabase implements OpenApcService {
     @Autowired
     private LastImportService lastImportService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // number of new and changed records, which are written together during the CSV import
+    @Value("${openapc.import.batchsize:1000}")
+    private int batchSize;
+
+    // searchByDoi checks the DOIs with an in-memory index before the database is queried
+    @Value("${openapc.index.enabled:true}")
+    private boolean doiIndexEnabled;
+
+    // built with the first search, null while the data is imported
+    private volatile OpenApcDoiIndex doiIndex;
+    // number of running imports, changed only with the lock of this
+    private volatile int runningImports = 0;
+
     private final OpenApcRepository openApcRepository;
 
     private final ObjectDiffer openApcEntityDiffer;
@@ -90,19 +121,86 @@ public class OpenApcServiceDatabase implements OpenApcService {
         ObjectDifferBuilder builder = ObjectDifferBuilder.startBuilding();
         builder.inclusion().exclude().propertyName("created")
                 .and()
-                .inclusion().exclude().propertyName("updated");
+                .inclusion().exclude().propertyName("updated")
+                .and()
+                .inclusion().exclude().propertyName("recordHash");
         openApcEntityDiffer = builder.build();
     }
 
     @Override
     public OpenApcRecord searchByDoi(String doi) {
+        if (doiIndexEnabled && doi != null) {
+            OpenApcDoiIndex index = getDoiIndex();
+            // most DOIs are not in OpenAPC, they are answered without a query
+            if (index != null && !index.contains(doi)) {
+                return null;
+            }
+        }
         return openApcRepository.findByDoi(doi);
     }
 
+    private OpenApcDoiIndex getDoiIndex() {
+        OpenApcDoiIndex index = doiIndex;
+        if (index == null && runningImports == 0) {
+            synchronized (this) {
+                index = doiIndex;
+                if (index == null && runningImports == 0) {
+                    index = buildDoiIndex();
+                    doiIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private OpenApcDoiIndex buildDoiIndex() {
+        try {
+            List<String> dois = jdbcTemplate.queryForList("SELECT doi FROM openapc", String.class);
+            OpenApcDoiIndex index = OpenApcDoiIndex.build(dois);
+            logger.info("OpenAPC DOI index built with {} DOIs", index.size());
+            return index;
+        } catch (Exception e) {
+            // the database is queried for every DOI
+            logger.error("OpenAPC DOI index could not be built: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // the index would miss the imported DOIs, until the import is finished the database is queried
+    private void startImport() {
+        synchronized (this) {
+            runningImports++;
+            doiIndex = null;
+        }
+    }
+
+    // the index is rebuilt under the lock, so that getDoiIndex does not build a second one at the same time
+    private void finishImport() {
+        synchronized (this) {
+            runningImports--;
+            if (runningImports == 0 && doiIndexEnabled) {
+                doiIndex = buildDoiIndex();
+            }
+        }
+    }
+
+    /*
+     * The rows are compared with the stored records by their hash, the hashes of all records are loaded before the import.
+     * New and changed records are written in batches.
+     */
     public void importRecordsFromCSV(Path path, int recordType) {
+        startImport();
+        try {
+            importRecords(path, recordType);
+        } finally {
+            finishImport();
+        }
+    }
+
+    private void importRecords(Path path, int recordType) {
         OpenApcCsvImporter importer = new OpenApcCsvImporter();
 
-        final AtomicInteger count = new AtomicInteger();
+        ImportState state = new ImportState(loadFingerprints(), batchSize);
         try (InputStream is = Files.newInputStream(path)) {
             importer.readFromStream(is, (CsvImportHandler<ApcRow>) row -> {
                 OpenApcEntity record = fromRow(row);
@@ -112,30 +210,136 @@ public class OpenApcServiceDatabase implements OpenApcService {
                 }
                 record.setTa(recordType == AGREEMENT);
                 try {
-                    OpenApcEntity existingRecord = openApcRepository.findByDoi(record.getDoi());
-                    if (existingRecord != null) {
-                        // Only import TA if no individual record exists for the DOI
-                        if (!record.isTa() ||
-                                record.isTa() && existingRecord.isTa()) {
-                            boolean hasDifference = compareRecords(existingRecord, record);
-                            if (hasDifference) {
-                                // save the new record if there are changes
-                                record.setCreated(existingRecord.getCreated());
-                                openApcRepository.save(record);
-                            }
-                        }
-                    } else {
-                        openApcRepository.save(record);
-                    }
+                    state.add(record);
                 } catch (Exception e) {
                     logger.error(e.getMessage(), e);
                 }
-                count.incrementAndGet();
             });
-        } catch (IOException e) {
+            state.flush();
+        } catch (Exception e) {
             logger.error(e.getMessage(), e);
         }
-        logger.debug(String.format("importRecordsFromCSV: %d openAPC records imported", count.get()));
+        logger.debug(String.format("importRecordsFromCSV: %d openAPC records imported, %d written", state.count, state.written));
+    }
+
+    // ta flag and hash of the stored records by lower case doi
+    private Map<String, RecordFingerprint> loadFingerprints() {
+        Map<String, RecordFingerprint> fingerprints = new HashMap<>();
+        jdbcTemplate.query("SELECT doi, ta, recordhash FROM openapc", rs -> {
+            String doi = rs.getString(1);
+            if (doi != null) {
+                fingerprints.put(doi.toLowerCase(Locale.ROOT), new RecordFingerprint(rs.getBoolean(2), rs.getString(3)));
+            }
+        });
+        return fingerprints;
+    }
+
+    private static class RecordFingerprint {
+        final boolean ta;
+        final String hash;
+
+        RecordFingerprint(boolean ta, String hash) {
+            this.ta = ta;
+            this.hash = hash;
+        }
+    }
+
+    private class ImportState {
+        private final Map<String, RecordFingerprint> fingerprints;
+        private final int batchSize;
+        // new records and records with another hash
+        private final List<OpenApcEntity> changed = new ArrayList<>();
+        // records stored before the hash was introduced, they are compared with the stored record once
+        private final List<OpenApcEntity> unhashed = new ArrayList<>();
+        private int count = 0;
+        private int written = 0;
+
+        ImportState(Map<String, RecordFingerprint> fingerprints, int batchSize) {
+            this.fingerprints = fingerprints;
+            this.batchSize = Math.max(batchSize, 1);
+        }
+
+        void add(OpenApcEntity record) {
+            count++;
+            record.setRecordHash(record.buildRecordHash());
+            String key = record.getDoi().toLowerCase(Locale.ROOT);
+            RecordFingerprint existing = fingerprints.get(key);
+            if (existing != null) {
+                // Only import TA if no individual record exists for the DOI
+                if (record.isTa() && !existing.ta) {
+                    return;
+                }
+                if (record.getRecordHash().equals(existing.hash)) {
+                    return;
+                }
+                if (existing.hash == null) {
+                    unhashed.add(record);
+                } else {
+                    changed.add(record);
+                }
+            } else {
+                changed.add(record);
+            }
+            fingerprints.put(key, new RecordFingerprint(record.isTa(), record.getRecordHash()));
+            if (changed.size() + unhashed.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            List<OpenApcEntity> upserts = new ArrayList<>();
+            if (!unhashed.isEmpty()) {
+                Map<String, OpenApcEntity> stored = new HashMap<>();
+                for (OpenApcEntity entity : openApcRepository.findAllById(unhashed.stream().map(OpenApcEntity::getId).toList())) {
+                    stored.put(entity.getId().toLowerCase(Locale.ROOT), entity);
+                }
+                List<Object[]> hashes = new ArrayList<>();
+                for (OpenApcEntity record : unhashed) {
+                    OpenApcEntity existingRecord = stored.get(record.getId().toLowerCase(Locale.ROOT));
+                    if (existingRecord != null && !compareRecords(existingRecord, record)) {
+                        // unchanged, only the hash is stored
+                        hashes.add(new Object[]{record.getRecordHash(), existingRecord.getId()});
+                    } else {
+                        upserts.add(record);
+                    }
+                }
+                if (!hashes.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE openapc SET recordhash = ? WHERE id = ?", hashes);
+                }
+                unhashed.clear();
+            }
+            // the changed records are written after the unhashed ones, a DOI may be contained in both lists
+            upserts.addAll(changed);
+            changed.clear();
+            if (upserts.isEmpty()) {
+                return;
+            }
+            long now = SystemTime.currentTimeMillis();
+            List<Object[]> rows = upserts.stream().map(record -> upsertValues(record, now)).toList();
+            try {
+                jdbcTemplate.batchUpdate(upsertSql, rows);
+                written += rows.size();
+            } catch (Exception e) {
+                // the records are written one by one, so that only the faulty ones are missing
+                logger.warn("openAPC batch failed, writing the records separately: {}", e.getMessage());
+                for (Object[] row : rows) {
+                    try {
+                        jdbcTemplate.update(upsertSql, row);
+                        written++;
+                    } catch (Exception ex) {
+                        logger.error(ex.getMessage(), ex);
+                    }
+                }
+            }
+        }
+    }
+
+    static Object[] upsertValues(OpenApcEntity record, long now) {
+        return new Object[]{record.getId(), record.getInstitution(), record.getPeriod(), record.getAmount(), record.getDoi(),
+                record.isIs_hybrid(), record.getPublisher(), record.getJournal_full_title(), record.getIssn(),
+                record.getIssn_print(), record.getIssn_electronic(), record.getIssn_l(), record.getLicense_ref(),
+                record.isIndexed_in_crossref(), record.getPmid(), record.getPmcid(), record.getUt(), record.getUrl(),
+                record.isDoaj(), record.getAgreement(), record.isTa(), record.getRecordHash(), now};
     }
 
     public static OpenApcEntity fromRow(ApcRow row) {
@@ -151,13 +355,24 @@ public class OpenApcServiceDatabase implements OpenApcService {
         return record;
     }
 
-    private static void setField(Object object, String fieldName, String strValue) {
+    private static Map<String, Field> buildEntityFields() {
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : getAllFieldsList(OpenApcEntity.class)) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                fields.put(field.getName(), field);
+            }
+        }
+        return fields;
+    }
+
+    private static void setField(OpenApcEntity object, String fieldName, String strValue) {
         try {
             // field content NA is ignored
             if ("NA".equals(strValue)) {
                 return;
             }
-            Field field = getField(object.getClass(), fieldName, true);
+            Field field = entityFields.get(fieldName);
             if (field != null) {
                 Object value;
                 if (field.getType().equals(String.class)) {
@@ -169,7 +384,7 @@ public class OpenApcServiceDatabase implements OpenApcService {
                 } else {
                     throw new RuntimeException("unhandled field type " + field.getType().getName());
                 }
-                writeField(field, object, value);
+                field.set(object, value);
             }
         } catch (Throwable e) {
             logger.error(e.getMessage(), e);
@@ -204,6 +419,8 @@ public class OpenApcServiceDatabase implements OpenApcService {
 
     public void updateOpenAPCData() {
         OpenApcClient client = new OpenApcClient();
+        // the index is rebuilt once after both files
+        startImport();
         try {
             logger.info("starting updateOpenAPCData()");
             // APC
@@ -220,6 +437,8 @@ public class OpenApcServiceDatabase implements OpenApcService {
         } catch (IOException e) {
             logger.error(e.getMessage(), e);
             throw new RuntimeException(e);
+        } finally {
+            finishImport();
         }
     }
 
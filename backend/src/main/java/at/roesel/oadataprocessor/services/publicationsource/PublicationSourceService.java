@@ -53,6 +53,7 @@ import at.roesel.oadataprocessor.services.xls.LargeExcelFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
@@ -63,11 +64,16 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static at.roesel.oadataprocessor.config.Identifiers.idBokuWien;
 import static at.roesel.oadataprocessor.config.Identifiers.idTuWien;
+import static at.roesel.common.StringSupport.hasValue;
 import static at.roesel.oadataprocessor.model.Publication.CLASSIFICATION_TODO;
 import static at.roesel.oadataprocessor.support.DoiSupport.containsReservedCharacter;
 import static at.roesel.oadataprocessor.support.DoiSupport.parseDoi;
@@ -118,39 +124,72 @@ public class PublicationSourceService {
     @Autowired
     private PublicationTypeService publicationTypeService;
 
-    public void saveSource(PublicationSource source) {
+    // number of parallel workers that query the external services in updatePublications, 1 = sequential
+    @Value("${publication.update.threads:1}")
+    private int updateThreads;
+
+    // number of institutions fetched at the same time in fetchFromInstitutions, 1 = sequential
+    @Value("${source.fetch.threads:1}")
+    private int fetchThreads;
+
+    // load the fingerprints of the existing sources of an institution before fetching, if they fit into memory
+    @Value("${source.preload.enabled:true}")
+    private boolean preloadSources;
+
+    // preloaded fingerprints per institution, only during a fetch from the institution
+    private final Map<String, SourceFingerprintCache> sourceFingerprints = new ConcurrentHashMap<>();
+
+    public boolean saveSource(PublicationSource source) {
         try {
             publicationSourceRepository.save(source);
+            return true;
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
+            return false;
         }
     }
 
     public void createOrUpdateSource(PublicationSource source, FetchResult fetchResult, boolean tryRun) {
         try {
+            source.setRecordHash(source.buildRecordHash());
+            SourceFingerprintCache cache = null;
+            if (source.getNativeId() != null) {
+                cache = sourceFingerprints.get(source.getInstitution());
+            }
             // Do we already have this publication from the institution?
-            PublicationSource existingSource = null;
+            PublicationSourceFingerprint existingSource = null;
             try {
-                // search for publication bei institution and nativeId
-                existingSource = findByInstitutionAndNativeId(source.getInstitution(), source.getNativeId());
+                if (cache != null) {
+                    existingSource = cache.get(source.getNativeId());
+                } else {
+                    // search for publication bei institution and nativeId, without reading the record
+                    existingSource = publicationSourceRepository.findFingerprintByInstitutionAndNativeId(source.getInstitution(), source.getNativeId());
+                }
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
             if (existingSource == null) {
                 fetchResult.incCreatedRecords();
                 if (!tryRun) {
-                    saveSource(source);
+                    if (saveSource(source) && cache != null) {
+                        cache.put(source.getId(), source.getNativeId(), source.getCreated(), source.getRecordHash());
+                    }
                 }
             } else {
-                if (existingSource.isDataEqual(source)) {
+                if (isDataEqual(existingSource, source, tryRun)) {
                     fetchResult.incUnchangedRecords();
+                    if (existingSource.getRecordHash() == null && !tryRun && cache != null) {
+                        cache.put(existingSource.getId(), source.getNativeId(), existingSource.getCreated(), source.getRecordHash());
+                    }
                 } else {
                     fetchResult.incModifiedRecords();
                     // take fields id and created from existing source and write the new data
                     source.setId(existingSource.getId());
                     source.setCreated(existingSource.getCreated());
                     if (!tryRun) {
-                        saveSource(source);
+                        if (saveSource(source) && cache != null) {
+                            cache.put(source.getId(), source.getNativeId(), source.getCreated(), source.getRecordHash());
+                        }
                     }
                 }
             }
@@ -159,6 +198,44 @@ public class PublicationSourceService {
         }
     }
 
+    /*
+     * compares the hashes of the sources,
+     * sources stored without a hash are compared completely and the hash is stored, if the data is equal
+     */
+    private boolean isDataEqual(PublicationSourceFingerprint existingSource, PublicationSource source, boolean tryRun) {
+        if (existingSource.getRecordHash() != null) {
+            return existingSource.getRecordHash().equals(source.getRecordHash());
+        }
+        PublicationSource storedSource = findByInstitutionAndNativeId(source.getInstitution(), source.getNativeId());
+        boolean dataEqual = storedSource.isDataEqual(source);
+        if (dataEqual && !tryRun) {
+            publicationSourceRepository.updateRecordHash(existingSource.getId(), source.getRecordHash());
+        }
+        return dataEqual;
+    }
+
+    /*
+     * loads the fingerprints of all sources of the institution for createOrUpdateSource,
+     * if they don't fit into memory, createOrUpdateSource queries every record
+     */
+    private void preloadSources(String institutionId) {
+        if (!preloadSources) {
+            return;
+        }
+        long count = publicationSourceRepository.countByInstitution(institutionId);
+        if (!SourceFingerprintCache.fitsInMemory(count)) {
+            logger.info(String.format("%d sources of institution %s don't fit into memory, using queries per record", count, institutionId));
+            return;
+        }
+        SourceFingerprintCache cache = new SourceFingerprintCache(publicationSourceRepository.findFingerprintsByInstitution(institutionId));
+        logger.debug(String.format("preloaded %d sources of institution %s", cache.size(), institutionId));
+        sourceFingerprints.put(institutionId, cache);
+    }
+
+    private void releaseSources(String institutionId) {
+        sourceFingerprints.remove(institutionId);
+    }
+
     PublicationSource findByInstitutionAndNativeId(String institution, String nativeId) {
         return publicationSourceRepository.findByInstitutionAndNativeId(institution, nativeId);
     }
@@ -187,70 +264,107 @@ public class PublicationSourceService {
 
     /*
      * Fetch the publications from all institutions that provide web services.
-     * Only publication that are new or were changed since the last run are queried
+     * Only publication that are new or were changed since the last run are queried.
+     * The institutions use independent servers, so up to fetchThreads institutions are fetched at the same time.
      */
     public void fetchFromInstitutions(List<Institution> institutions) {
-        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        if (fetchThreads <= 1 || institutions.size() <= 1) {
+            for (Institution institution : institutions) {
+                fetchFromInstitution(institution);
+            }
+            return;
+        }
 
-        for (Institution institution : institutions) {
-            RepositoryParams repositoryParams = institution.getRepositoryparams();
-            String apiUrl = institution.getRepositoryUrl();
-            if (apiUrl == null || apiUrl.isEmpty()) {
-                continue;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(fetchThreads, institutions.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Institution institution : institutions) {
+                futures.add(executor.submit(() -> fetchFromInstitution(institution)));
             }
-            LocalDate lastImportDate = lastImportService.loadLastImportDate(institution.getId());
-            logger.info(String.format("fetching publications from %s (%s), starting with %s ",
-                    institution.getName(), institution.getId(), dateFormat.format(lastImportDate)));
-            SourceLog sourceLog = new SourceLog(institution.getId());
-            sourceLog.setStartTime(SystemTime.currentTimeMillis());
-            try {
-                ClientParameter parameter = ClientParameter.of(institution.getRepositoryUrl(), institution.getRepositoryKey());
-                parameter.setSetName(repositoryParams.getOaipmhSetName());
-                LocalDate modifiedAfter = lastImportDate.minusDays(1);
-                String comment;
-                switch (institution.getRepository()) {
-                    case repositoryOaiPmh: {
-                        parameter.setStartDate(modifiedAfter);
-                        parameter.setQueryFormat(repositoryParams.getOaipmhMetadataFormat());
-                        OaiPmhPublicationSourceHandler responseHandler = new OaiPmhPublicationSourceHandler(this, institution.getId());
-                        oaiPmhService.fetchPublications(parameter, responseHandler);
-                        comment = responseHandler.summary().asText();
-                        break;
-                    }
-                    case repositoryPure: {
-                        ResultResponseHandler<PureResearchOutput> responseHandler = new PurePublicationSourceHandler(this, institution.getId());
-                        pureService.fetchPublications(parameter, responseHandler, modifiedAfter);
-                        comment = responseHandler.summary().asText();
-                        break;
-                    }
-                    case repositoryOpenAire: {
-                        OpenAireImportHandler responseHandler = new OpenAireImportHandler(this, institution.getId());
-                        openAireService.fetchPublications(parameter, responseHandler, modifiedAfter);
-                        comment = responseHandler.summary().asText();
-                        break;
-                    }
-                    case repositoryUibk: {
-                        ApiPublicationImportHandler responseHandler = new ApiPublicationImportHandler(this, institution.getId());
-                        uibkImportService.fetchPublications(parameter, repositoryParams.getClientId(), responseHandler, modifiedAfter);
-                        comment = responseHandler.summary().asText();
-                        break;
-                    }
-                    default: {
-                        comment = "unhandled repository type " + institution.getRepository();
-                    }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // errors of the fetch itself are already stored in the SourceLog of the institution
+                    logger.error(e.getCause().getMessage(), e.getCause());
                 }
-                sourceLog.setEndTime(SystemTime.currentTimeMillis());
-                sourceLog.setComment(comment);
-                saveSourceLog(sourceLog);
-                // remember the time of the last publication query
-                saveLastImportDate(institution);
-            } catch (Exception e) {
-                // example for an exception: 401: Request not authorized. Provided API key has expired
-                sourceLog.setEndTime(SystemTime.currentTimeMillis());
-                sourceLog.setComment(e.getMessage());
-                sourceLog.setStatus(-1);
-                saveSourceLog(sourceLog);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Fetch the publications from a single institution, the result is stored in the SourceLog
+     */
+    private void fetchFromInstitution(Institution institution) {
+        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        RepositoryParams repositoryParams = institution.getRepositoryparams();
+        String apiUrl = institution.getRepositoryUrl();
+        if (apiUrl == null || apiUrl.isEmpty()) {
+            return;
+        }
+        LocalDate lastImportDate = lastImportService.loadLastImportDate(institution.getId());
+        logger.info(String.format("fetching publications from %s (%s), starting with %s ",
+                institution.getName(), institution.getId(), dateFormat.format(lastImportDate)));
+        SourceLog sourceLog = new SourceLog(institution.getId());
+        sourceLog.setStartTime(SystemTime.currentTimeMillis());
+        try {
+            preloadSources(institution.getId());
+            ClientParameter parameter = ClientParameter.of(institution.getRepositoryUrl(), institution.getRepositoryKey());
+            parameter.setSetName(repositoryParams.getOaipmhSetName());
+            LocalDate modifiedAfter = lastImportDate.minusDays(1);
+            String comment;
+            switch (institution.getRepository()) {
+                case repositoryOaiPmh: {
+                    parameter.setStartDate(modifiedAfter);
+                    parameter.setQueryFormat(repositoryParams.getOaipmhMetadataFormat());
+                    OaiPmhPublicationSourceHandler responseHandler = new OaiPmhPublicationSourceHandler(this, institution.getId());
+                    oaiPmhService.fetchPublications(parameter, responseHandler);
+                    comment = responseHandler.summary().asText();
+                    break;
+                }
+                case repositoryPure: {
+                    ResultResponseHandler<PureResearchOutput> responseHandler = new PurePublicationSourceHandler(this, institution.getId());
+                    pureService.fetchPublications(parameter, responseHandler, modifiedAfter);
+                    comment = responseHandler.summary().asText();
+                    break;
+                }
+                case repositoryOpenAire: {
+                    OpenAireImportHandler responseHandler = new OpenAireImportHandler(this, institution.getId());
+                    openAireService.fetchPublications(parameter, responseHandler, modifiedAfter);
+                    comment = responseHandler.summary().asText();
+                    break;
+                }
+                case repositoryUibk: {
+                    ApiPublicationImportHandler responseHandler = new ApiPublicationImportHandler(this, institution.getId());
+                    uibkImportService.fetchPublications(parameter, repositoryParams.getClientId(), responseHandler, modifiedAfter);
+                    comment = responseHandler.summary().asText();
+                    break;
+                }
+                default: {
+                    comment = "unhandled repository type " + institution.getRepository();
+                }
+            }
+            sourceLog.setEndTime(SystemTime.currentTimeMillis());
+            sourceLog.setComment(comment);
+            saveSourceLog(sourceLog);
+            // remember the time of the last publication query
+            saveLastImportDate(institution);
+            logger.info(String.format("fetching publications from %s (%s) finished: %s", institution.getName(), institution.getId(), comment));
+        } catch (Exception e) {
+            // example for an exception: 401: Request not authorized. Provided API key has expired
+            logger.error(String.format("fetching publications from %s (%s) failed: %s", institution.getName(), institution.getId(), e.getMessage()));
+            sourceLog.setEndTime(SystemTime.currentTimeMillis());
+            sourceLog.setComment(e.getMessage());
+            sourceLog.setStatus(-1);
+            saveSourceLog(sourceLog);
+        } finally {
+            releaseSources(institution.getId());
         }
     }
 
@@ -381,110 +495,192 @@ public class PublicationSourceService {
 
         PublicationDataEnhancer publicationDataEnhancer = publicationService.createPublicationDataEnhancer(institutionService.institutionMap());
 
+        ExecutorService executor = updateThreads > 1 ? Executors.newFixedThreadPool(updateThreads) : null;
+
         PageRequest pageRequest = PageRequest.of(0, 500);
         int count = 0;
         int ignored = 0;
         int created = 0;
         int updated = 0;
-        while (true) {
-            logger.debug("updatePublications(): reading sources from database");
-            long startTime = SystemTime.currentTimeMillis();
-            Page<PublicationSource> sources;
-            if (institution != null) {
-                sources = publicationSourceRepository.findAllByInstitutionAndStatus(pageRequest, institution, PublicationSourceStatus.NEW_OR_CHANGED);
-            } else {
-                sources = publicationSourceRepository.findAllByStatus(pageRequest, PublicationSourceStatus.NEW_OR_CHANGED);
-            }
-            logger.debug(String.format("loading time: %d ms", SystemTime.currentTimeMillis() - startTime));
-            if (sources.getContent().isEmpty()) {
-                break;
-            }
-            // status is updated in the loop below, so we must not call next(), we have to fetch the pages always from the beginning
-            // pageRequest = pageRequest.next();
+        try {
+            while (true) {
+                logger.debug("updatePublications(): reading sources from database");
+                long startTime = SystemTime.currentTimeMillis();
+                Page<PublicationSource> sources;
+                if (institution != null) {
+                    sources = publicationSourceRepository.findAllByInstitutionAndStatus(pageRequest, institution, PublicationSourceStatus.NEW_OR_CHANGED);
+                } else {
+                    sources = publicationSourceRepository.findAllByStatus(pageRequest, PublicationSourceStatus.NEW_OR_CHANGED);
+                }
+                logger.debug(String.format("loading time: %d ms", SystemTime.currentTimeMillis() - startTime));
+                if (sources.getContent().isEmpty()) {
+                    break;
+                }
+                // status is updated in the loop below, so we must not call next(), we have to fetch the pages always from the beginning
+                // pageRequest = pageRequest.next();
 
-            for (PublicationSource source : sources.getContent()) {
-                count++;
-                logger.debug(String.format("Handle source %6d\t%s\t%s", count, source.getId(), source.getTitle()));
-                Publication publication = publicationCreator.from(source);
-                if (publication == null) {
-                    logger.warn("could not create publication from source, id = {}, format = {}", source.getId(), source.getDataType());
-                    continue;
+                List<Publication> pagePublications = new ArrayList<>();
+                for (PublicationSource source : sources.getContent()) {
+                    pagePublications.add(publicationCreator.from(source));
                 }
-                PublicationSourceStatus newSourceStatus = PublicationSourceStatus.IMPORTED;
-                boolean activePublication = publicationFilter.test(publication);
-                if (!activePublication) {
-                    ignored++;
-                    newSourceStatus = PublicationSourceStatus.IGNORED;
+                if (executor != null) {
+                    long prefetchStartTime = SystemTime.currentTimeMillis();
+                    prefetchEnrichmentData(sources.getContent(), pagePublications, publicationDataEnhancer, executor);
+                    logger.debug(String.format("prefetch data for page: %d ms", SystemTime.currentTimeMillis() - prefetchStartTime));
                 }
-                try {
-                    // check if the publication is already existing from a previous import or from another institution
-                    long findStartTime = SystemTime.currentTimeMillis();
-                    // if the publication was already imported from this source, we should find it with the sourceId
-                    Publication existingPublication = publicationService.findPublicationBySourceId(source.getId());
-                    if (existingPublication == null) {
-                        // search publication with other criteria (doi, title)
-                        existingPublication = publicationService.findPublication(publication);
-                    }
 
-                    logger.debug(String.format("find publication: %d ms", SystemTime.currentTimeMillis() - findStartTime));
-                    if (existingPublication == null) {
-                        if (activePublication) {
-                            created++;
-                            long addSourceStartTime = SystemTime.currentTimeMillis();
-                            publicationDataEnhancer.enrichDataInPublication(publication);
-                            logger.debug(String.format("enrich data in publication: %d ms", SystemTime.currentTimeMillis() - addSourceStartTime));
-                            long saveStartTime = SystemTime.currentTimeMillis();
-                            publicationService.save(publication);
-                            logger.debug(String.format("save publication: %d ms", SystemTime.currentTimeMillis() - saveStartTime));
-                        }
-                    } else {
-                        if (!activePublication) {
-                            logger.warn(String.format("publication id = %s is inactive after update, pub type = %d", existingPublication.getId(), publication.getPubtypeId()));
-                        }
-                        if (existingPublication.getSources().size() > 1) {
-                            logger.debug(String.format("publication id = %s has multiple sources %d", existingPublication.getId(), publication.getSources().size()));
+                for (int i = 0; i < sources.getContent().size(); i++) {
+                    PublicationSource source = sources.getContent().get(i);
+                    count++;
+                    logger.debug(String.format("Handle source %6d\t%s\t%s", count, source.getId(), source.getTitle()));
+                    Publication publication = pagePublications.get(i);
+                    if (publication == null) {
+                        logger.warn("could not create publication from source, id = {}, format = {}", source.getId(), source.getDataType());
+                        continue;
+                    }
+                    PublicationSourceStatus newSourceStatus = PublicationSourceStatus.IMPORTED;
+                    boolean activePublication = publicationFilter.test(publication);
+                    if (!activePublication) {
+                        ignored++;
+                        newSourceStatus = PublicationSourceStatus.IGNORED;
+                    }
+                    try {
+                        // check if the publication is already existing from a previous import or from another institution
+                        long findStartTime = SystemTime.currentTimeMillis();
+                        // if the publication was already imported from this source, we should find it with the sourceId
+                        Publication existingPublication = publicationService.findPublicationBySourceId(source.getId());
+                        if (existingPublication == null) {
+                            // search publication with other criteria (doi, title)
+                            existingPublication = publicationService.findPublication(publication);
                         }
-                        updated++;
-                        logger.debug("Updating publication id = {} from source id {}", existingPublication.getId(), source.getId());
-                        PublicationUpdater.UpdateResult updateResult = publicationUpdater.update(existingPublication, publication);
-                        Publication updatedPublication = updateResult.getPublication();
-                        boolean activeUpdatedPublication = publicationFilter.test(updatedPublication);
-                        boolean changedStatus;
-                        if (activeUpdatedPublication) {
-                            changedStatus = updatedPublication.getStatus() != Publication.STATUS_ACTIVE;
-                            updatedPublication.setStatus(Publication.STATUS_ACTIVE);
-                            newSourceStatus = PublicationSourceStatus.IMPORTED;
+
+                        logger.debug(String.format("find publication: %d ms", SystemTime.currentTimeMillis() - findStartTime));
+                        if (existingPublication == null) {
+                            if (activePublication) {
+                                created++;
+                                long addSourceStartTime = SystemTime.currentTimeMillis();
+                                publicationDataEnhancer.enrichDataInPublication(publication);
+                                logger.debug(String.format("enrich data in publication: %d ms", SystemTime.currentTimeMillis() - addSourceStartTime));
+                                long saveStartTime = SystemTime.currentTimeMillis();
+                                publicationService.save(publication);
+                                logger.debug(String.format("save publication: %d ms", SystemTime.currentTimeMillis() - saveStartTime));
+                            }
                         } else {
-                            changedStatus = updatedPublication.getStatus() != Publication.STATUS_INACTIVE;
-                            updatedPublication.setStatus(Publication.STATUS_INACTIVE);
-                            newSourceStatus = PublicationSourceStatus.IGNORED;
-                        }
-                        if (updateResult.isChanged() || changedStatus) {
-                            // Check if a DOI has been added
-                            // if yes then we have to add additional data from the web
-                            if (updateResult.isAddedDoi()) {
-                                publicationDataEnhancer.enrichDataInPublication(updatedPublication);
+                            if (!activePublication) {
+                                logger.warn(String.format("publication id = %s is inactive after update, pub type = %d", existingPublication.getId(), publication.getPubtypeId()));
+                            }
+                            if (existingPublication.getSources().size() > 1) {
+                                logger.debug(String.format("publication id = %s has multiple sources %d", existingPublication.getId(), publication.getSources().size()));
+                            }
+                            updated++;
+                            logger.debug("Updating publication id = {} from source id {}", existingPublication.getId(), source.getId());
+                            PublicationUpdater.UpdateResult updateResult = publicationUpdater.update(existingPublication, publication);
+                            Publication updatedPublication = updateResult.getPublication();
+                            boolean activeUpdatedPublication = publicationFilter.test(updatedPublication);
+                            boolean changedStatus;
+                            if (activeUpdatedPublication) {
+                                changedStatus = updatedPublication.getStatus() != Publication.STATUS_ACTIVE;
+                                updatedPublication.setStatus(Publication.STATUS_ACTIVE);
+                                newSourceStatus = PublicationSourceStatus.IMPORTED;
+                            } else {
+                                changedStatus = updatedPublication.getStatus() != Publication.STATUS_INACTIVE;
+                                updatedPublication.setStatus(Publication.STATUS_INACTIVE);
+                                newSourceStatus = PublicationSourceStatus.IGNORED;
+                            }
+                            if (updateResult.isChanged() || changedStatus) {
+                                // Check if a DOI has been added
+                                // if yes then we have to add additional data from the web
+                                if (updateResult.isAddedDoi()) {
+                                    publicationDataEnhancer.enrichDataInPublication(updatedPublication);
+                                }
+                                // we need a new coat classification after the update
+                                updatedPublication.setClassificationStatus(CLASSIFICATION_TODO);
+                                // eventually try to find a journal again
+                                updatedPublication.resetJournalIdStatus();
+                                // eventually try to find a publisher again
+                                updatedPublication.resetPublisherIdStatus();
+                                publicationService.save(updatedPublication);
                             }
-                            // we need a new coat classification after the update
-                            updatedPublication.setClassificationStatus(CLASSIFICATION_TODO);
-                            // eventually try to find a journal again
-                            updatedPublication.resetJournalIdStatus();
-                            // eventually try to find a publisher again
-                            updatedPublication.resetPublisherIdStatus();
-                            publicationService.save(updatedPublication);
                         }
+                        source.setStatus(newSourceStatus);
+                        saveSource(source);
+                    } catch (Exception e) {
+                        logger.error(e.getMessage(), e);
                     }
-                    source.setStatus(newSourceStatus);
-                    saveSource(source);
-                } catch (Exception e) {
-                    logger.error(e.getMessage(), e);
                 }
             }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
         logger.info(format("updating %d publications: created: %d, updated: %d, ignored: %d ", count, created, updated, ignored));
 
     }
 
+    /*
+     * Queries Crossref and Unpaywall for the publications of a page with parallel workers, then OpenAlex with grouped requests.
+     * Only dois for which updatePublications will call enrichDataInPublication are queried, that is,
+     * dois that are not yet in the publication table.
+     * The services store the results in their database tables, the following sequential processing of the page
+     * reads them from there. Finding, creating and updating publications remains sequential, so the
+     * duplicate detection between sources of the same page is the same as without workers.
+     */
+    private void prefetchEnrichmentData(List<PublicationSource> sources, List<Publication> publications,
+                                        PublicationDataEnhancer publicationDataEnhancer, ExecutorService executor) {
+        // each doi only once, also if it is contained in several sources of the page
+        Map<String, PublicationSource> doiSources = new LinkedHashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            Publication publication = publications.get(i);
+            if (publication != null && hasValue(publication.getDoi())) {
+                doiSources.putIfAbsent(publication.getDoi(), sources.get(i));
+            }
+        }
+
+        List<String> openAlexDois = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        for (Map.Entry<String, PublicationSource> entry : doiSources.entrySet()) {
+            String doi = entry.getKey();
+            String sourceId = entry.getValue().getId();
+            futures.add(executor.submit(() -> {
+                try {
+                    Publication existingPublication = publicationService.findPublicationBySourceId(sourceId);
+                    if (existingPublication != null && doi.equals(existingPublication.getDoi())) {
+                        return;
+                    }
+                    if (publicationService.readByDoi(doi) != null) {
+                        return;
+                    }
+                    if (publicationDataEnhancer.prefetchData(doi)) {
+                        openAlexDois.add(doi);
+                    }
+                } catch (Exception e) {
+                    // the sequential processing will try again
+                    logger.error(String.format("prefetch data for doi %s: %s", doi, e.getMessage()), e);
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+
+        // OpenAlex is queried with grouped requests after Crossref
+        try {
+            publicationDataEnhancer.prefetchOpenAlexData(openAlexDois);
+        } catch (Exception e) {
+            // the sequential processing will try again
+            logger.error(String.format("prefetch OpenAlex data: %s", e.getMessage()), e);
+        }
+    }
+
     /*
      utility method to check dois in sources
      */
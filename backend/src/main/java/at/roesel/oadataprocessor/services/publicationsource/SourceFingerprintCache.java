@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.publicationsource;
+
+import at.roesel.oadataprocessor.model.PublicationSourceFingerprint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Fingerprints of the existing sources of an institution per nativeId,
+ * loaded at once before a fetch, so that createOrUpdateSource needs no query per record
+ */
+class SourceFingerprintCache {
+
+    // estimated memory usage per entry in bytes (strings, fingerprint, map entry)
+    private static final long bytesPerEntry = 512;
+
+    private final Map<String, PublicationSourceFingerprint> fingerprints = new HashMap<>();
+
+    SourceFingerprintCache(Iterable<PublicationSourceFingerprint> sources) {
+        for (PublicationSourceFingerprint source : sources) {
+            fingerprints.put(source.getNativeId(), source);
+        }
+    }
+
+    // true if the fingerprints of count sources take at most half of the available memory
+    static boolean fitsInMemory(long count) {
+        Runtime runtime = Runtime.getRuntime();
+        long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        return count * bytesPerEntry < available / 2;
+    }
+
+    synchronized PublicationSourceFingerprint get(String nativeId) {
+        return fingerprints.get(nativeId);
+    }
+
+    synchronized void put(String id, String nativeId, Long created, String recordHash) {
+        fingerprints.put(nativeId, new Fingerprint(id, nativeId, created, recordHash));
+    }
+
+    int size() {
+        return fingerprints.size();
+    }
+
+    private static class Fingerprint implements PublicationSourceFingerprint {
+        private final String id;
+        private final String nativeId;
+        private final Long created;
+        private final String recordHash;
+
+        Fingerprint(String id, String nativeId, Long created, String recordHash) {
+            this.id = id;
+            this.nativeId = nativeId;
+            this.created = created;
+            this.recordHash = recordHash;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getNativeId() {
+            return nativeId;
+        }
+
+        @Override
+        public Long getCreated() {
+            return created;
+        }
+
+        @Override
+        public String getRecordHash() {
+            return recordHash;
+        }
+    }
+}
@@ -24,6 +24,7 @@ package at.roesel.oadataprocessor.services.publicationsource.uibk;
 
 import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.services.common.ClientParameter;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -38,8 +39,12 @@ public class UibkImportService {
     @Autowired
     private AppSettings appSettings;
 
+    @Autowired
+    private ProviderHttpClients providerHttpClients;
+
     public void fetchPublications(ClientParameter parameter, String clientId, ApiPublicationImportHandler handler, LocalDate after) {
-        UibkRestClient client = new UibkRestClient(appSettings.getContactEMail(), clientId, parameter);
+        UibkRestClient client = new UibkRestClient(appSettings.getContactEMail(), clientId, parameter,
+                providerHttpClients.get(ProviderHttpClients.uibk));
         client.fetchPublications(handler, after);
     }
 
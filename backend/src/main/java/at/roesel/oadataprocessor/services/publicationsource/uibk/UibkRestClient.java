@@ -27,6 +27,7 @@ import at.roesel.oadataprocessor.openapi.model.Error;
 import at.roesel.oadataprocessor.openapi.model.Publication;
 import at.roesel.oadataprocessor.persistance.conversion.ObjectMapperFactory;
 import at.roesel.oadataprocessor.services.common.ClientParameter;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import at.roesel.oadataprocessor.services.common.ResultResponseHandler;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -83,7 +84,11 @@ public class UibkRestClient extends RestClient {
     private int pageSize; // number of results per query
 
     public UibkRestClient(String mailTo, String apiUrl, String clientId, String clientSecret) {
-        super();
+        this(mailTo, apiUrl, clientId, clientSecret, null);
+    }
+
+    public UibkRestClient(String mailTo, String apiUrl, String clientId, String clientSecret, ProviderHttpClient provider) {
+        super(provider);
 
         if (!apiUrl.endsWith("/")) {
             apiUrl += "/";
@@ -99,7 +104,11 @@ public class UibkRestClient extends RestClient {
     }
 
     public UibkRestClient(String mailTo, String clientId, ClientParameter parameter) {
-        this(mailTo, parameter.getUrl(), clientId, parameter.getApiKey());
+        this(mailTo, clientId, parameter, null);
+    }
+
+    public UibkRestClient(String mailTo, String clientId, ClientParameter parameter, ProviderHttpClient provider) {
+        this(mailTo, parameter.getUrl(), clientId, parameter.getApiKey(), provider);
     }
 
     public String requestAccessToken() {
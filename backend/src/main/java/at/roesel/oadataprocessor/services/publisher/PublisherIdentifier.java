@@ -55,6 +55,7 @@ public class PublisherIdentifier {
     private final static int MIN_RATIO = 80;
     private static final int MAX_RATIO = 100;
     private final Iterable<Publisher> allPublishers;
+    private final PublisherNameIndex nameIndex;
 
     private final Logger logger = LoggerFactory.getLogger(PublisherIdentifier.class);
 
@@ -69,6 +70,7 @@ public class PublisherIdentifier {
 
         allPublishers = readPublishers();
         normalizeIsni(allPublishers);
+        nameIndex = new PublisherNameIndex(allPublishers);
     }
 
     public Iterable<Publisher> readPublishers() {
@@ -151,28 +153,37 @@ public class PublisherIdentifier {
         return count == nameParts.nameParts.size();
     }
 
-    // using Fuzzy logic to compare publisher names
-    private List<PublisherResult> findPublisherByName(String searchName) {
+    // using Fuzzy logic to compare publisher names, only the names preselected by the index are compared
+    List<PublisherResult> findPublisherByName(String searchName) {
         List<PublisherResult> publishers = new ArrayList<>();
-        for (Publisher publisher : allPublishers) {
-            int ratio = FuzzySearch.ratio(publisher.getName().toLowerCase(), searchName);
-            if (ratio == MAX_RATIO) {
-                publishers.add(new PublisherResult(publisher, ratio));
-            } else if (ratio > MIN_RATIO) {
-                publishers.add(new PublisherResult(publisher, ratio));
-            } else {
-                String[] alternateNames = publisher.getAlternateNames();
-                for (String name : alternateNames) {
-                    ratio = FuzzySearch.ratio(name.toLowerCase(), searchName);
-                    if (ratio == MAX_RATIO) {
-                        publishers.add(new PublisherResult(publisher, ratio));
-                    } else if (ratio > MIN_RATIO) {
-                        publishers.add(new PublisherResult(publisher, ratio));
-                        break;
-                    }
+        List<PublisherNameIndex.Entry> entries = nameIndex.candidates(searchName, MIN_RATIO);
+        int i = 0;
+        while (i < entries.size()) {
+            int publisherIndex = entries.get(i).publisherIndex;
+            Publisher publisher = nameIndex.publisher(publisherIndex);
+            boolean nameMatches = false;
+            if (!entries.get(i).isAlternateName()) {
+                int ratio = FuzzySearch.ratio(entries.get(i).name, searchName);
+                if (ratio > MIN_RATIO) {
+                    publishers.add(new PublisherResult(publisher, ratio));
+                    nameMatches = true;
                 }
+                i++;
             }
-        };
+            // the alternate names are compared only if the name does not match
+            for (; i < entries.size() && entries.get(i).publisherIndex == publisherIndex; i++) {
+                if (nameMatches) {
+                    continue;
+                }
+                int ratio = FuzzySearch.ratio(entries.get(i).name, searchName);
+                if (ratio == MAX_RATIO) {
+                    publishers.add(new PublisherResult(publisher, ratio));
+                } else if (ratio > MIN_RATIO) {
+                    publishers.add(new PublisherResult(publisher, ratio));
+                    nameMatches = true;
+                }
+            }
+        }
         return publishers;
     }
 
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.publisher;
+
+import at.roesel.oadataprocessor.model.Publisher;
+
+import java.util.*;
+
+/*
+ * Index over the lower case names and alternate names of the publishers.
+ * Delivers for a search name all names, whose FuzzySearch.ratio can be greater than a minimum ratio.
+ * FuzzySearch.ratio is 2 * lcs / (len1 + len2), where the length of the longest common subsequence lcs
+ * can't be greater than the number of common characters of both names, so the names can be
+ * preselected by length and the characters used without losing a match.
+ */
+class PublisherNameIndex {
+
+    // a publisher name or alternate name
+    static class Entry {
+        final int publisherIndex;
+        final int nameIndex;    // -1 for the name, otherwise the index in the alternate names
+        final String name;
+        private final char[] sortedChars;
+
+        Entry(int publisherIndex, int nameIndex, String name) {
+            this.publisherIndex = publisherIndex;
+            this.nameIndex = nameIndex;
+            this.name = name;
+            sortedChars = sortedChars(name);
+        }
+
+        boolean isAlternateName() {
+            return nameIndex >= 0;
+        }
+    }
+
+    private final List<Publisher> publishers = new ArrayList<>();
+    // all entries by the length of the name
+    private final TreeMap<Integer, List<Entry>> entriesByLength = new TreeMap<>();
+
+    PublisherNameIndex(Iterable<Publisher> allPublishers) {
+        for (Publisher publisher : allPublishers) {
+            int publisherIndex = publishers.size();
+            publishers.add(publisher);
+            add(new Entry(publisherIndex, -1, publisher.getName().toLowerCase()));
+            String[] names = publisher.getAlternateNames();
+            for (int i = 0; i < names.length; i++) {
+                add(new Entry(publisherIndex, i, names[i].toLowerCase()));
+            }
+        }
+    }
+
+    private void add(Entry entry) {
+        entriesByLength.computeIfAbsent(entry.name.length(), k -> new ArrayList<>()).add(entry);
+    }
+
+    Publisher publisher(int publisherIndex) {
+        return publishers.get(publisherIndex);
+    }
+
+    /*
+     * Returns the entries, whose ratio with the search name can be greater than minRatio,
+     * sorted by publisher and name as in the list of publishers.
+     */
+    List<Entry> candidates(String searchName, int minRatio) {
+        int length = searchName.length();
+        char[] searchChars = sortedChars(searchName);
+        List<Entry> candidates = new ArrayList<>();
+        // a ratio > 80 requires a length between 0.67 and 1.49 times the length of the search name
+        int minLength = length * 2 / 3;
+        int maxLength = length * 3 / 2 + 1;
+        for (List<Entry> entries : entriesByLength.subMap(minLength, true, maxLength, true).values()) {
+            for (Entry entry : entries) {
+                if (maxRatio(searchChars, entry.sortedChars) > minRatio) {
+                    candidates.add(entry);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt((Entry e) -> e.publisherIndex).thenComparingInt(e -> e.nameIndex));
+        return candidates;
+    }
+
+    // upper limit of FuzzySearch.ratio for two names with the given characters
+    static int maxRatio(char[] sortedChars1, char[] sortedChars2) {
+        int total = sortedChars1.length + sortedChars2.length;
+        if (total == 0) {
+            return 0;
+        }
+        int common = commonChars(sortedChars1, sortedChars2);
+        return (int) Math.round(100 * ((double) (2 * common) / total));
+    }
+
+    private static int commonChars(char[] sortedChars1, char[] sortedChars2) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sortedChars1.length && j < sortedChars2.length) {
+            if (sortedChars1[i] == sortedChars2[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (sortedChars1[i] < sortedChars2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    static char[] sortedChars(String name) {
+        char[] chars = name.toCharArray();
+        Arrays.sort(chars);
+        return chars;
+    }
+}
@@ -24,6 +24,7 @@ package at.roesel.oadataprocessor.services.pure;
 
 import at.roesel.common.SleepSupport;
 import at.roesel.oadataprocessor.persistance.conversion.ObjectMapperFactory;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import at.roesel.oadataprocessor.services.common.ClientParameter;
 import at.roesel.oadataprocessor.services.common.CollectAllResultsResponseHandler;
@@ -62,7 +63,11 @@ public class PureRestClient extends RestClient {
     private int pageSize; // number of results per query
 
     public PureRestClient(String apiUrl, String apiKey, String proxyConfig) {
-        super(proxyConfig);
+        this(apiUrl, apiKey, proxyConfig, null);
+    }
+
+    public PureRestClient(String apiUrl, String apiKey, String proxyConfig, ProviderHttpClient provider) {
+        super(provider, proxyConfig);
 
         if (!apiUrl.endsWith("/")) {
             apiUrl += "/";
@@ -76,7 +81,11 @@ public class PureRestClient extends RestClient {
     }
 
     public PureRestClient(ClientParameter parameter) {
-        this(parameter.getUrl(), parameter.getApiKey(), parameter.getProxyConfig());
+        this(parameter, null);
+    }
+
+    public PureRestClient(ClientParameter parameter, ProviderHttpClient provider) {
+        this(parameter.getUrl(), parameter.getApiKey(), parameter.getProxyConfig(), provider);
     }
 
     public int getPageSize() {
@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.services.pure;
 
 import at.roesel.oadataprocessor.services.common.ClientParameter;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import at.roesel.oadataprocessor.services.common.ResultResponseHandler;
 import at.roesel.oadataprocessor.services.pure.model.PureResearchOutput;
 import org.springframework.beans.factory.InitializingBean;
@@ -33,7 +34,10 @@ import java.time.LocalDate;
 @Component
 public class PureServiceImpl implements PureService, InitializingBean {
 
-    public PureServiceImpl() {
+    private final ProviderHttpClients providerHttpClients;
+
+    public PureServiceImpl(ProviderHttpClients providerHttpClients) {
+        this.providerHttpClients = providerHttpClients;
     }
 
     @Override
@@ -42,7 +46,7 @@ public class PureServiceImpl implements PureService, InitializingBean {
 
     @Override
     public void fetchPublications(ClientParameter parameter, ResultResponseHandler<PureResearchOutput> resultResponseHandler, LocalDate after) {
-        PureRestClient client = new PureRestClient(parameter);
+        PureRestClient client = new PureRestClient(parameter, providerHttpClients.get(ProviderHttpClients.pure));
         client.fetchResearchOutputs(resultResponseHandler, after);
     }
 
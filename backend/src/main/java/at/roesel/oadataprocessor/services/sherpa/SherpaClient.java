@@ -25,6 +25,7 @@ package at.roesel.oadataprocessor.services.sherpa;
 import at.roesel.oadataprocessor.model.sherpa.RomeoPublisher;
 import at.roesel.oadataprocessor.model.sherpa.SherpaObjectResponse;
 import at.roesel.oadataprocessor.model.sherpa.SherpaPublisherResponse;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +47,11 @@ public class SherpaClient extends RestClient {
     private final String apiKey;
 
     public SherpaClient(String apiKey) {
-        super();
+        this(apiKey, null);
+    }
+
+    public SherpaClient(String apiKey, ProviderHttpClient provider) {
+        super(provider);
         this.apiKey = apiKey;
         args = String.format(argsTemplate, apiKey);
     }
@@ -26,7 +26,9 @@ import at.roesel.oadataprocessor.model.sherpa.Romeo;
 import at.roesel.oadataprocessor.model.sherpa.RomeoPublisher;
 import at.roesel.oadataprocessor.model.sherpa.SherpaObjectResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /*
@@ -45,6 +47,12 @@ public interface SherpaService {
     /* romeoForIssn for multiple ISSNs */
     Romeo romeoForIssns(List<String> issns);
 
+    /* romeoForIssns for the ISSN lists of several journals, the records are returned by ISSN */
+    Map<String, Romeo> romeoForJournals(Collection<? extends List<String>> journalIssns);
+
+    /* Removes the cached records of romeoForIssn */
+    void clearCache();
+
     void fetchPublishers(Consumer<RomeoPublisher> visitor);
 
 }
@@ -29,13 +29,17 @@ import at.roesel.oadataprocessor.model.sherpa.RomeoPublisher;
 import at.roesel.oadataprocessor.model.sherpa.RomeoSource;
 import at.roesel.oadataprocessor.model.sherpa.SherpaObjectResponse;
 import at.roesel.oadataprocessor.persistance.RomeoRepository;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 @Component
@@ -45,18 +49,28 @@ public class SherpaServiceImpl implements InitializingBean, SherpaService {
 
     private final AppSettings settings;
     private final RomeoRepository romeoRepository;
+    private final ProviderHttpClients providerHttpClients;
 
     private SherpaClient client;
 
-    public SherpaServiceImpl(AppSettings settings, RomeoRepository romeoRepository) {
+    // romeo records by issn, an empty Optional if there is no record for the issn in the database
+    private final Cache<String, Optional<Romeo>> romeoCache;
+
+    public SherpaServiceImpl(AppSettings settings, RomeoRepository romeoRepository, ProviderHttpClients providerHttpClients,
+                             @Value("${sherpa.cache.size:50000}") long cacheSize) {
         super();
         this.settings = settings;
         this.romeoRepository = romeoRepository;
+        this.providerHttpClients = providerHttpClients;
+        romeoCache = Caffeine.newBuilder()
+                .expireAfterWrite(1, TimeUnit.DAYS)
+                .maximumSize(cacheSize)
+                .build();
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        client = new SherpaClient(settings.getApiKeySherpa());
+        client = new SherpaClient(settings.getApiKeySherpa(), providerHttpClients.get(ProviderHttpClients.sherpa));
     }
 
     @Override
@@ -65,34 +79,20 @@ public class SherpaServiceImpl implements InitializingBean, SherpaService {
     }
 
     public Romeo romeoForIssn(String issn) {
+        Optional<Romeo> cached = romeoCache.getIfPresent(issn);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
         Optional<RomeoSource> result = romeoRepository.findById(issn);
+        Romeo romeo;
         if (result.isPresent()) {
-            RomeoSource romeoSource = result.get();
-            if (romeoSource.isOk()) {
-                return romeoSource.getRecord();
-            }
+            romeo = romeoFromSource(result.get());
         } else {
-            SherpaObjectResponse response = objectByID(issn);
-            if (response.hasItems()) {
-                logger.debug("new romeo data for {}", issn);
-                Romeo romeo = response.items.get(0);
-                RomeoSource romeoSource = new RomeoSource(issn, romeo);
-                romeoRepository.save(romeoSource);
-                return romeo;
-            } else {
-                logger.debug("no romeo data for {}", issn);
-                RomeoSource romeoSource = new RomeoSource(issn, null);
-                if (response.hasError()) {
-                    Romeo romeo = new Romeo();
-                    romeo.setAdditionalProperty("error", response.getError());
-                    romeoSource.setStatus(SourceStatus.OTHER_ERROR.getCode());
-                } else {
-                    romeoSource.setStatus(SourceStatus.NOT_FOUND.getCode());
-                }
-                romeoRepository.save(romeoSource);
-            }
+            romeo = fetchRomeo(issn);
         }
-        return null;
+        // the database entries are not updated, so they can be cached
+        romeoCache.put(issn, Optional.ofNullable(romeo));
+        return romeo;
     }
 
     public Romeo romeoForIssns(List<String> issns) {
@@ -106,8 +106,74 @@ public class SherpaServiceImpl implements InitializingBean, SherpaService {
         return null;
     }
 
+    /*
+     * The issns of all journals, which are not in the cache, are read from the database with one query.
+     * Sherpa is queried for the journals without a record in the database like in romeoForIssns:
+     * the issns of a journal are queried in their order until a record is found.
+     */
+    public Map<String, Romeo> romeoForJournals(Collection<? extends List<String>> journalIssns) {
+        Set<String> missing = new HashSet<>();
+        for (List<String> issns : journalIssns) {
+            for (String issn : issns) {
+                if (romeoCache.getIfPresent(issn) == null) {
+                    missing.add(issn);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (RomeoSource romeoSource : romeoRepository.findAllById(missing)) {
+                romeoCache.put(romeoSource.getIssn(), Optional.ofNullable(romeoFromSource(romeoSource)));
+            }
+        }
+
+        Map<String, Romeo> result = new HashMap<>();
+        for (List<String> issns : journalIssns) {
+            Romeo romeo = romeoForIssns(issns);
+            if (romeo != null) {
+                for (String issn : issns) {
+                    result.put(issn, romeo);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Romeo romeoFromSource(RomeoSource romeoSource) {
+        if (romeoSource.isOk()) {
+            return romeoSource.getRecord();
+        }
+        return null;
+    }
+
+    // fetches the record from Sherpa and stores the result in the database, also if there is no record
+    private Romeo fetchRomeo(String issn) {
+        SherpaObjectResponse response = objectByID(issn);
+        if (response.hasItems()) {
+            logger.debug("new romeo data for {}", issn);
+            Romeo romeo = response.items.get(0);
+            RomeoSource romeoSource = new RomeoSource(issn, romeo);
+            romeoRepository.save(romeoSource);
+            return romeo;
+        } else {
+            logger.debug("no romeo data for {}", issn);
+            RomeoSource romeoSource = new RomeoSource(issn, null);
+            if (response.hasError()) {
+                Romeo romeo = new Romeo();
+                romeo.setAdditionalProperty("error", response.getError());
+                romeoSource.setStatus(SourceStatus.OTHER_ERROR.getCode());
+            } else {
+                romeoSource.setStatus(SourceStatus.NOT_FOUND.getCode());
+            }
+            romeoRepository.save(romeoSource);
+        }
+        return null;
+    }
+
+    public void clearCache() {
+        romeoCache.invalidateAll();
+    }
+
     public void fetchPublishers(Consumer<RomeoPublisher> visitor) {
-        SherpaClient client = new SherpaClient(settings.getApiKeySherpa());
         client.fetchPublishers(visitor);
     }
 
@@ -23,6 +23,7 @@
 package at.roesel.oadataprocessor.services.unpaywall;
 
 import at.roesel.oadataprocessor.model.unpaywall.UnpaywallResource;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +44,11 @@ public class UnpaywallClient extends RestClient {
     private int requestCount;
 
     public UnpaywallClient(String mailTo) {
-        super();
+        this(mailTo, null);
+    }
+
+    public UnpaywallClient(String mailTo, ProviderHttpClient provider) {
+        super(provider);
         this.mailTo = mailTo;
         requestCount = 0;
     }
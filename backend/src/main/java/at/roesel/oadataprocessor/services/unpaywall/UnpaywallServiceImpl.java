@@ -27,6 +27,7 @@ import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.unpaywall.UnpaywallResource;
 import at.roesel.oadataprocessor.model.unpaywall.UnpaywallSource;
 import at.roesel.oadataprocessor.persistance.UnpaywallRepository;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,6 +51,9 @@ public class UnpaywallServiceImpl implements UnpaywallService, InitializingBean
     @Autowired
     private UnpaywallRepository unpaywallRepository;
 
+    @Autowired
+    private ProviderHttpClients providerHttpClients;
+
     private UnpaywallClient restClient;
 
 
@@ -58,7 +62,7 @@ public class UnpaywallServiceImpl implements UnpaywallService, InitializingBean
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        restClient = new UnpaywallClient(appSettings.getContactEMail());
+        restClient = new UnpaywallClient(appSettings.getContactEMail(), providerHttpClients.get(ProviderHttpClients.unpaywall));
     }
 
     public UnpaywallResource resource(String doi) {
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.unpaywall;
+
+import at.roesel.oadataprocessor.model.SourceStatus;
+import at.roesel.oadataprocessor.model.unpaywall.UnpaywallResource;
+import at.roesel.oadataprocessor.persistance.PublicationRepository;
+import at.roesel.oadataprocessor.persistance.conversion.UnpaywallResourceConverter;
+import at.roesel.oadataprocessor.services.common.DoiCacheSnapshotImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static at.roesel.common.StringSupport.hasValue;
+
+/*
+ * Imports the records of an Unpaywall data snapshot into the unpaywall table, so that
+ * the enrichment and classification don't have to query the Unpaywall API for each DOI.
+ * Only records with a DOI of a publication or from the configured DOI list are imported.
+ */
+@Component
+public class UnpaywallSnapshotImporter extends DoiCacheSnapshotImporter<UnpaywallResource> {
+
+    private final Logger logger = LoggerFactory.getLogger(UnpaywallSnapshotImporter.class);
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    // path of a snapshot file or of a directory with snapshot files
+    @Value("${unpaywall.snapshot.path:}")
+    private String snapshotPath;
+
+    // optional file with the DOIs to import, one per line, instead of the DOIs of the publications
+    @Value("${unpaywall.snapshot.doifile:}")
+    private String doiFile;
+
+    @Value("${unpaywall.snapshot.batchsize:1000}")
+    private int batchSize;
+
+    private final UnpaywallResourceConverter converter = new UnpaywallResourceConverter();
+
+    public UnpaywallSnapshotImporter() {
+        super(UnpaywallResource.class, "unpaywall");
+    }
+
+    public void importSnapshot() {
+        if (!hasValue(snapshotPath)) {
+            logger.warn("no Unpaywall snapshot path configured (unpaywall.snapshot.path)");
+            return;
+        }
+        Set<String> dois;
+        try {
+            dois = doisToImport(doiFile, publicationRepository::findAllDois);
+        } catch (IOException e) {
+            logger.error("error while reading DOI list {}: {}", doiFile, e.getMessage(), e);
+            return;
+        }
+        logger.info("{} DOIs to import", dois.size());
+        importSnapshot(Path.of(snapshotPath), dois, batchSize);
+    }
+
+    @Override
+    protected String doi(UnpaywallResource resource) {
+        return resource.doi;
+    }
+
+    @Override
+    protected long recordTimestamp(UnpaywallResource resource) {
+        return parseTimestamp(resource.updated);
+    }
+
+    @Override
+    protected String toDatabaseColumn(UnpaywallResource resource) {
+        return converter.convertToDatabaseColumn(resource);
+    }
+
+    @Override
+    protected SourceStatus status(UnpaywallResource resource) {
+        return resource.status();
+    }
+}
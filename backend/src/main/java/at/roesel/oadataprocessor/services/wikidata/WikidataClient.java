@@ -22,6 +22,7 @@
 
 package at.roesel.oadataprocessor.services.wikidata;
 
+import at.roesel.oadataprocessor.services.common.ProviderHttpClient;
 import at.roesel.oadataprocessor.services.common.RestClient;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import org.slf4j.Logger;
@@ -42,15 +43,27 @@ public class WikidataClient extends RestClient {
 
     private final Logger logger = LoggerFactory.getLogger(WikidataClient.class);
 
-    private final static String apiUrl = "https://query.wikidata.org/sparql";
+    private final static String defaultApiUrl = "https://query.wikidata.org/sparql";
     private final static MediaType sparqlMediaType = MediaType.valueOf("application/sparql-query");
     private final static String entityUrl = "https://www.wikidata.org/wiki/Special:EntityData";
     private final static String cr = "\r\n";
 
+    private final String apiUrl;
+
     private String userAgent;
 
     public WikidataClient(String contactMail) {
-        super();
+        this(contactMail, null);
+    }
+
+    public WikidataClient(String contactMail, ProviderHttpClient provider) {
+        this(contactMail, provider, defaultApiUrl);
+    }
+
+    // apiUrl: SPARQL endpoint
+    WikidataClient(String contactMail, ProviderHttpClient provider, String apiUrl) {
+        super(provider);
+        this.apiUrl = apiUrl;
 
         if (contactMail != null) {
             userAgent = String.format("%s (mailto:%s)", clientName, contactMail);
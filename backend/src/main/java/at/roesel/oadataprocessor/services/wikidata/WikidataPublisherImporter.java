@@ -22,7 +22,6 @@
 
 package at.roesel.oadataprocessor.services.wikidata;
 
-import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.Publisher;
 import at.roesel.oadataprocessor.model.wikidata.WikidataJsonPublisher;
 import at.roesel.oadataprocessor.persistance.conversion.ObjectMapperFactory;
@@ -81,17 +80,18 @@ public class WikidataPublisherImporter {
     private final Logger logger = LoggerFactory.getLogger(WikidataPublisherImporter.class);
     private final ObjectMapper objectMapper = ObjectMapperFactory.create();
 
-    private final AppSettings appSettings;
-
     private final PublisherService publisherService;
     private final PublisherUpdater publisherUpdater = new PublisherUpdater();
+    private final Function<LocalDate, String> fetchPublishers;
     private final Function<String, Publisher> fetchPublisher;
 
     private Map<Publisher, Publisher> redirectedPublishers = new HashMap<>();
 
-    public WikidataPublisherImporter(AppSettings appSettings, PublisherService publisherService, Function<String, Publisher> fetchPublisher) {
-        this.appSettings = appSettings;
+    // fetchPublishers: SPARQL response with the publishers modified after the date
+    public WikidataPublisherImporter(PublisherService publisherService, Function<LocalDate, String> fetchPublishers,
+                                     Function<String, Publisher> fetchPublisher) {
         this.publisherService = publisherService;
+        this.fetchPublishers = fetchPublishers;
         this.fetchPublisher = fetchPublisher;
     }
 
@@ -103,8 +103,7 @@ public class WikidataPublisherImporter {
         try {
 
             Set<String> handledPublishers = new HashSet<>();
-            WikidataClient client = new WikidataClient(appSettings.getContactEMail());
-            String response = client.fetchPublishers(modifiedAfterDate);
+            String response = fetchPublishers.apply(modifiedAfterDate);
             JsonNode rootNode = objectMapper.readTree(response);
 
             JsonNode bindingsNode = rootNode.path("results").path("bindings");
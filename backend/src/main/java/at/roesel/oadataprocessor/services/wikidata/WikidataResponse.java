@@ -22,6 +22,8 @@
 
 package at.roesel.oadataprocessor.services.wikidata;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,11 +41,18 @@ public class WikidataResponse {
 
     public static class Binding {
         public Value item;
+        // variables of the queries with several ISSNs or items
+        public Value issn;
+        public Value date;
     }
 
     public static class Value {
         public String type;
         public String value;
+        // set for typed and language tagged literals, e.g. schema:dateModified
+        public String datatype;
+        @JsonProperty("xml:lang")
+        public String lang;
     }
 
     public List<String> getValues(String type) {
@@ -26,7 +26,10 @@ import at.roesel.oadataprocessor.model.Journal;
 import at.roesel.oadataprocessor.model.Publisher;
 import at.roesel.oadataprocessor.model.wikidata.WikidataJsonEntity;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface WikidataService {
 
@@ -34,8 +37,20 @@ public interface WikidataService {
 
     Journal searchJournal(List<String> issns);
 
+    /*
+     * Wikidata ids of the journals by ISSN, ISSNs without a journal in Wikidata are not contained in the result.
+     * The ISSNs are queried in chunks with one SPARQL request each, the results are cached.
+     */
+    Map<String, String> searchJournalIds(Collection<String> issns);
+
+    /* Time [ms] of the last modification of the entities by Wikidata id, queried in chunks like searchJournalIds */
+    Map<String, Long> modificationTimes(Collection<String> wikidataIds);
+
     Journal fetchJournal(String wikidataId);
 
     Publisher fetchPublisher(String wikidataId);
 
+    /* SPARQL response with the publishers of the focus list, which were modified after the date */
+    String fetchPublishers(LocalDate since);
+
 }
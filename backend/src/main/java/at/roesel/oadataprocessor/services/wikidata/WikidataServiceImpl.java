@@ -33,14 +33,22 @@ import at.roesel.oadataprocessor.model.wikidata.WikidataJsonEntity;
 import at.roesel.oadataprocessor.model.wikidata.WikidataMonolingualtext;
 import at.roesel.oadataprocessor.model.wikidata.WikidataValue;
 import at.roesel.oadataprocessor.persistance.conversion.ObjectMapperFactory;
+import at.roesel.oadataprocessor.services.common.ProviderHttpClients;
 import at.roesel.oadataprocessor.support.WikidataSupport;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static at.roesel.common.CharacterSupport.has4ByteCharacters;
 import static at.roesel.common.StringSupport.hasValue;
@@ -53,39 +61,135 @@ public class WikidataServiceImpl implements WikidataService {
     private final static Logger logger = LoggerFactory.getLogger(WikidataServiceImpl.class);
     private final static ObjectMapper objectMapper = ObjectMapperFactory.create();
 
-    private final AppSettings appSettings;
+    private final WikidataClient client;
 
-    public WikidataServiceImpl(AppSettings appSettings) {
-        this.appSettings = appSettings;
+    // number of ISSNs or entities, which are queried with one SPARQL request
+    private final int queryChunkSize;
+
+    // Wikidata id of the journal by ISSN, an empty string if there is no journal with the ISSN
+    private final Cache<String, String> journalIdCache = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.DAYS)
+            .maximumSize(100000)
+            .build();
+
+    public WikidataServiceImpl(AppSettings appSettings, ProviderHttpClients providerHttpClients,
+                               @Value("${wikidata.query.chunksize:50}") int queryChunkSize) {
+        this(new WikidataClient(appSettings.getContactEMail(), providerHttpClients.get(ProviderHttpClients.wikidata)), queryChunkSize);
+    }
+
+    WikidataServiceImpl(WikidataClient client, int queryChunkSize) {
+        this.client = client;
+        this.queryChunkSize = Math.max(1, queryChunkSize);
     }
 
     @Override
     public Journal searchJournal(List<String> issns) {
-        WikidataClient client = new WikidataClient(appSettings.getContactEMail());
+        Map<String, String> journalIds = searchJournalIds(issns);
+        for (String issn : issns) {
+            String wikidataId = journalIds.get(issn);
+            if (hasValue(wikidataId)) {
+                logger.debug("Found journal {} with issn {} in Wikidata", wikidataId, issn);
+                return fetchJournal(wikidataId);
+            }
+        }
+        return null;
+    }
 
+    @Override
+    public Map<String, String> searchJournalIds(Collection<String> issns) {
+        Map<String, String> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String issn : new LinkedHashSet<>(issns)) {
+            String wikidataId = journalIdCache.getIfPresent(issn);
+            if (wikidataId == null) {
+                missing.add(issn);
+            } else if (!wikidataId.isEmpty()) {
+                result.put(issn, wikidataId);
+            }
+        }
+        for (List<String> chunk : chunks(missing)) {
+            Map<String, String> found = queryJournalIds(chunk);
+            for (String issn : chunk) {
+                String wikidataId = found.getOrDefault(issn, "");
+                journalIdCache.put(issn, wikidataId);
+                if (!wikidataId.isEmpty()) {
+                    result.put(issn, wikidataId);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<String, String> queryJournalIds(List<String> issns) {
+        StringBuilder query = new StringBuilder("SELECT ?item ?issn WHERE {  VALUES ?issn {");
         for (String issn : issns) {
-            String query = "SELECT ?item WHERE {" +
-                    "  ?item wdt:P236 \"" + issn + "\"." +
-                    "}";
-            String response = client.executeWikidataQuery(query);
-
-            try {
-                WikidataResponse wikidataResponse = objectMapper.readValue(response, WikidataResponse.class);
-                List<String> values = wikidataResponse.getValues("uri");
-                if (!values.isEmpty()) {
-                    if (values.size() > 1) {
-                        logger.warn(String.format("Found multiple entries %s for issn = '%s'in Wikidata", response, issn));
+            query.append(" ").append(sparqlString(issn));
+        }
+        query.append(" }  ?item wdt:P236 ?issn.}");
+
+        Map<String, String> result = new HashMap<>();
+        for (WikidataResponse.Binding binding : queryBindings(query.toString())) {
+            if (binding.item != null && "uri".equals(binding.item.type) && binding.issn != null) {
+                String wikidataId = extractWikiId(binding.item.value);
+                String previousId = result.putIfAbsent(binding.issn.value, wikidataId);
+                if (previousId != null && !previousId.equals(wikidataId)) {
+                    logger.warn("Found multiple entries {}, {} for issn = '{}' in Wikidata", previousId, wikidataId, binding.issn.value);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> modificationTimes(Collection<String> wikidataIds) {
+        List<String> ids = wikidataIds.stream()
+                .filter(id -> id != null && id.matches("Q\\d+"))
+                .distinct()
+                .toList();
+        Map<String, Long> result = new HashMap<>();
+        for (List<String> chunk : chunks(ids)) {
+            StringBuilder query = new StringBuilder("SELECT ?item ?date WHERE {  VALUES ?item {");
+            for (String id : chunk) {
+                query.append(" wd:").append(id);
+            }
+            query.append(" }  ?item schema:dateModified ?date.}");
+            for (WikidataResponse.Binding binding : queryBindings(query.toString())) {
+                if (binding.item != null && binding.date != null) {
+                    try {
+                        result.put(extractWikiId(binding.item.value), Instant.parse(binding.date.value).toEpochMilli());
+                    } catch (DateTimeParseException e) {
+                        logger.warn("invalid modification date {} of {}", binding.date.value, binding.item.value);
                     }
-                    String entityUrl = values.get(0);
-                    logger.debug("Found journal {} with issn {} in Wikidata", entityUrl, issn);
-                    String wikidataId = extractWikiId(entityUrl);
-                    return fetchJournal(wikidataId);
                 }
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
             }
         }
-        return null;
+        return result;
+    }
+
+    private List<WikidataResponse.Binding> queryBindings(String query) {
+        String response = client.executeWikidataQuery(query);
+        try {
+            WikidataResponse wikidataResponse = objectMapper.readValue(response, WikidataResponse.class);
+            if (wikidataResponse.results == null || wikidataResponse.results.bindings == null) {
+                return List.of();
+            }
+            return wikidataResponse.results.bindings;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<List<String>> chunks(List<String> values) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += queryChunkSize) {
+            chunks.add(values.subList(start, Math.min(start + queryChunkSize, values.size())));
+        }
+        return chunks;
+    }
+
+    // string literal for a SPARQL query
+    static String sparqlString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
     }
 
     @Override
@@ -151,7 +255,6 @@ public class WikidataServiceImpl implements WikidataService {
     @Override
     public WikidataJsonEntity fetchWikidataEntity(String wikidataId) {
         try {
-            WikidataClient client = new WikidataClient(appSettings.getContactEMail());
             String entityResponse = client.fetchWikiEntity(wikidataId);
             if (!entityResponse.isEmpty()) {
                 // check for error (plain text)
@@ -180,6 +283,11 @@ public class WikidataServiceImpl implements WikidataService {
         return createPublisherFromWikidataEntity(wikidataId, entity);
     }
 
+    @Override
+    public String fetchPublishers(LocalDate since) {
+        return client.fetchPublishers(since);
+    }
+
 
     public static Publisher createPublisherFromWikidataEntity(String wikidataId, WikidataJsonEntity entity) {
         // create Publisher from entity
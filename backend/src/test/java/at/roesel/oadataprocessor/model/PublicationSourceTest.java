@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicationSourceTest {
+
+    private PublicationSource source(String title, String doi, String record) {
+        PublicationSource source = new PublicationSource();
+        source.setTitle(title);
+        source.setDoi(doi);
+        source.setDataType("json");
+        source.setPubtype("article");
+        source.setYear(2024);
+        source.setRecord(record);
+        return source;
+    }
+
+    @Test
+    void buildRecordHash() {
+        PublicationSource source = source("Title", "10.1000/1", "{}");
+        String hash = source.buildRecordHash();
+        assertEquals(64, hash.length());
+        assertEquals(hash, source("Title", "10.1000/1", "{}").buildRecordHash());
+
+        // different data must result in different hashes
+        assertNotEquals(hash, source("Title ", "10.1000/1", "{}").buildRecordHash());
+        assertNotEquals(hash, source("Title", null, "{}").buildRecordHash());
+        assertNotEquals(source("ab", "c", "{}").buildRecordHash(), source("a", "bc", "{}").buildRecordHash());
+        assertNotEquals(source(null, "", "{}").buildRecordHash(), source("", null, "{}").buildRecordHash());
+
+        PublicationSource changed = source("Title", "10.1000/1", "{}");
+        changed.setYear(2023);
+        assertFalse(source.isDataEqual(changed));
+        assertNotEquals(hash, changed.buildRecordHash());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.model.openapc;
+
+import at.roesel.oadataprocessor.services.openapc.OpenApcServiceDatabase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApcEntityTest {
+
+    private ApcRow row(String doi, String euro, String publisher) {
+        ApcRow row = new ApcRow();
+        row.setField(OpenApcFields.doi, doi);
+        row.setField(OpenApcFields.euro, euro);
+        row.setField("institution", "Uni");
+        row.setField("period", "2023");
+        row.setField("is_hybrid", "TRUE");
+        row.setField("publisher", publisher);
+        row.setField("pmid", "NA");
+        return row;
+    }
+
+    @Test
+    void fromRow() {
+        OpenApcEntity record = OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.5", "Publisher"));
+        assertEquals("10.1000/1", record.getId());
+        assertEquals("10.1000/1", record.getDoi());
+        assertEquals(123450, record.getAmount());
+        assertEquals("Uni", record.getInstitution());
+        assertEquals(2023, record.getPeriod());
+        assertTrue(record.isHybrid());
+        assertEquals("Publisher", record.getPublisher());
+        // NA is ignored
+        assertNull(record.getPmid());
+    }
+
+    @Test
+    void buildRecordHash() {
+        String hash = OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.5", "Publisher")).buildRecordHash();
+        assertEquals(64, hash.length());
+        assertEquals(hash, OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.5", "Publisher")).buildRecordHash());
+
+        // different data must result in different hashes
+        assertNotEquals(hash, OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.6", "Publisher")).buildRecordHash());
+        assertNotEquals(hash, OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.5", "Publisher ")).buildRecordHash());
+        OpenApcEntity agreement = OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.5", "Publisher"));
+        agreement.setTa(true);
+        assertNotEquals(hash, agreement.buildRecordHash());
+
+        // created and updated are not part of the hash
+        OpenApcEntity stored = OpenApcServiceDatabase.fromRow(row("10.1000/1", "1234.5", "Publisher"));
+        stored.setCreated(1000);
+        stored.setUpdated(2000);
+        assertEquals(hash, stored.buildRecordHash());
+    }
+}
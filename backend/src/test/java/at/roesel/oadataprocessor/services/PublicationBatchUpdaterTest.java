@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicationBatchUpdaterTest {
+
+    // one update statement with the ids and the value
+    private record Statement(List<String> ids, String value) {
+    }
+
+    @Test
+    void updatesAreGroupedByValue() {
+        List<Statement> statements = new ArrayList<>();
+        PublicationBatchUpdater updater = new PublicationBatchUpdater((ids, value, updateTime) -> {
+            statements.add(new Statement(new ArrayList<>(ids), value));
+            return ids.size();
+        }, 4);
+
+        updater.update("1", "p1");
+        updater.update("2", "-up");
+        updater.update("3", "p1");
+        assertTrue(statements.isEmpty());
+
+        // the fourth update reaches the batch size
+        updater.update("4", "p1");
+        assertEquals(2, statements.size());
+        assertEquals(new Statement(List.of("1", "3", "4"), "p1"), statements.get(0));
+        assertEquals(new Statement(List.of("2"), "-up"), statements.get(1));
+
+        updater.update("5", "p2");
+        updater.flush();
+        assertEquals(3, statements.size());
+        assertEquals(new Statement(List.of("5"), "p2"), statements.get(2));
+
+        // nothing pending
+        updater.flush();
+        assertEquals(3, statements.size());
+        assertEquals(5, updater.getUpdateCount());
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoiCacheSnapshotImporterTest {
+
+    @Test
+    void cachedRecordNewer() {
+        assertTrue(DoiCacheSnapshotImporter.isCachedRecordNewer(1000L, null, 1000));
+        assertTrue(DoiCacheSnapshotImporter.isCachedRecordNewer(500L, 1500L, 1000));
+        assertFalse(DoiCacheSnapshotImporter.isCachedRecordNewer(999L, null, 1000));
+        assertFalse(DoiCacheSnapshotImporter.isCachedRecordNewer(null, null, 1000));
+        // without a time of the snapshot record every cached record is kept
+        assertTrue(DoiCacheSnapshotImporter.isCachedRecordNewer(1L, null, 0));
+    }
+
+    @Test
+    void readDois(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("dois.txt");
+        Files.writeString(file, "10.1000/ABC\n\n  10.1000/def  \n");
+        assertEquals(Set.of("10.1000/abc", "10.1000/def"), DoiCacheSnapshotImporter.readDois(file));
+    }
+
+    @Test
+    void parseTimestamp() {
+        assertEquals(1684288349823L, DoiCacheSnapshotImporter.parseTimestamp("2023-05-17T01:52:29.823044"));
+        assertEquals(1684288349000L, DoiCacheSnapshotImporter.parseTimestamp("2023-05-17T03:52:29+02:00"));
+        assertEquals(0, DoiCacheSnapshotImporter.parseTimestamp("2023-05-17"));
+        assertEquals(0, DoiCacheSnapshotImporter.parseTimestamp(null));
+    }
+}
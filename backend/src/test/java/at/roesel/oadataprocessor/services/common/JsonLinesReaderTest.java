@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.common;
+
+import at.roesel.oadataprocessor.model.crossref.CrossrefWork;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesReaderTest {
+
+    private static final String work1 = "{\"DOI\":\"10.1000/abc\",\"title\":[\"First\"],\"publisher\":\"Publisher A\"," +
+            "\"indexed\":{\"date-time\":\"2024-03-01T10:00:00Z\",\"timestamp\":1709287200000},\"unknown-field\":{\"x\":1}}";
+    private static final String work2 = "{\"DOI\":\"10.1000/def\",\"title\":[\"Second\"],\"publisher\":\"Publisher B\"}";
+
+    @Test
+    void readsGzippedAndPlainFiles(@TempDir Path dir) throws IOException {
+        writeGzip(dir.resolve("0.jsonl.gz"), work1 + "\n" + "{not json\n" + "\n");
+        Files.writeString(dir.resolve("1.jsonl"), work2 + "\n");
+        Files.writeString(dir.resolve("readme.txt"), "ignored");
+
+        List<CrossrefWork> works = new ArrayList<>();
+        new JsonLinesReader<>(CrossrefWork.class).read(dir, works::add);
+
+        assertEquals(2, works.size());
+        assertEquals("10.1000/abc", works.get(0).doi);
+        assertEquals(1709287200000L, works.get(0).indexed.timestamp);
+        assertEquals("Publisher A", works.get(0).publisher);
+        assertEquals("10.1000/def", works.get(1).doi);
+        assertNull(works.get(1).indexed);
+    }
+
+    @Test
+    void readsPartitionFolders(@TempDir Path dir) throws IOException {
+        Path partition = Files.createDirectories(dir.resolve("updated_date=2024-01-01"));
+        writeGzip(partition.resolve("part_000.gz"), work1 + "\n");
+        writeGzip(partition.resolve("part_001.gz"), work2 + "\n");
+        Files.writeString(dir.resolve("manifest"), "ignored");
+
+        List<CrossrefWork> works = new ArrayList<>();
+        new JsonLinesReader<>(CrossrefWork.class).read(dir, works::add);
+
+        assertEquals(List.of("10.1000/abc", "10.1000/def"), works.stream().map(work -> work.doi).toList());
+    }
+
+    private void writeGzip(Path file, String content) throws IOException {
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file));
+             Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.services.common;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderHttpClientTest {
+
+    private HttpServer server;
+    private String url;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    // local stub server, every request takes 100 ms
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            running.decrementAndGet();
+            byte[] response = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(10));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/test";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrencyIsLimited() throws Exception {
+        try (ProviderHttpClient provider = new ProviderHttpClient("test", 0, 2)) {
+            List<String> results = requestInParallel(provider, 8);
+            assertEquals(8, results.size());
+            assertTrue(results.stream().allMatch("ok"::equals));
+            assertTrue(maxRunning.get() <= 2, "max parallel requests: " + maxRunning.get());
+        }
+    }
+
+    @Test
+    void rateIsLimited() throws Exception {
+        try (ProviderHttpClient provider = new ProviderHttpClient("test", 20, 0)) {
+            long start = System.nanoTime();
+            requestInParallel(provider, 6);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            // 6 requests with 20 requests per second, the last one starts after 5 x 50 ms
+            assertTrue(elapsedMillis >= 250, "elapsed: " + elapsedMillis);
+        }
+    }
+
+    @Test
+    void clientsShareTheLimits() throws Exception {
+        try (ProviderHttpClient provider = new ProviderHttpClient("test", 0, 1)) {
+            RestClient client1 = new RestClient(provider);
+            RestClient client2 = new RestClient(provider);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                RestClient client = i % 2 == 0 ? client1 : client2;
+                futures.add(executor.submit(() -> client.restTemplate.getForObject(url, String.class)));
+            }
+            for (Future<String> future : futures) {
+                assertEquals("ok", future.get());
+            }
+            executor.shutdown();
+            assertEquals(1, maxRunning.get());
+        }
+    }
+
+    @Test
+    void permitIsHeldUntilTheBodyIsRead() throws Exception {
+        // the headers and the start of the body are sent at once, the rest after 100 ms
+        AtomicInteger transfers = new AtomicInteger();
+        AtomicInteger maxTransfers = new AtomicInteger();
+        server.createContext("/slowbody", exchange -> {
+            maxTransfers.accumulateAndGet(transfers.incrementAndGet(), Math::max);
+            // chunked, the first part of the body is sent at once
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write('o');
+                os.flush();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ignored) {
+                }
+                // counted as finished before the client can read the end of the body and start the next request
+                transfers.decrementAndGet();
+                os.write('k');
+            }
+        });
+        String slowBodyUrl = url.replace("/test", "/slowbody");
+        try (ProviderHttpClient provider = new ProviderHttpClient("test", 0, 1)) {
+            // with a proxyConfig the client has its own connection pool, only the limiter restricts the transfers
+            RestClient client = new RestClient(provider, "proxy.invalid:localhost:3128");
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> client.restTemplate.getForObject(slowBodyUrl, String.class)));
+            }
+            for (Future<String> future : futures) {
+                assertEquals("ok", future.get());
+            }
+            executor.shutdown();
+            assertEquals(1, maxTransfers.get());
+        }
+    }
+
+    private List<String> requestInParallel(ProviderHttpClient provider, int count) throws Exception {
+        RestClient client = new RestClient(provider);
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> client.restTemplate.getForObject(url, String.class)));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
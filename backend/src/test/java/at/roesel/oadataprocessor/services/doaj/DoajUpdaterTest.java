@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.doaj;
+
+import at.roesel.oadataprocessor.model.doaj.DoajJournalEntity;
+import at.roesel.oadataprocessor.persistance.DoajRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class DoajUpdaterTest {
+
+    @TempDir
+    Path tempDir;
+
+    // sizes of the saveAll calls
+    private final List<Integer> batches = new ArrayList<>();
+    private final Map<String, DoajJournalEntity> table = new HashMap<>();
+
+    @Test
+    void importDump() throws IOException {
+        // the dump is split into several files
+        Path dump = Files.createDirectory(tempDir.resolve("doaj_journal_data"));
+        Files.writeString(dump.resolve("journal_batch_1.json"), "[" + payload("j1", "Journal 1") + "," + payload("j2", "Journal 2 changed") + "]");
+        Files.writeString(dump.resolve("journal_batch_2.json"), "[" + payload("j3", "Journal 3") + "," + payload("j4", "Journal 4") + "]");
+
+        Map<String, DoajJournalEntity> journalMap = new HashMap<>();
+        journalMap.put("j1", journal("j1", "Journal 1"));
+        journalMap.put("j2", journal("j2", "Journal 2"));
+        journalMap.put("j5", journal("j5", "Journal 5"));
+
+        DoajRepository repository = repository();
+        new DoajUpdater(repository, journalMap, 2).importDoajRecordsFromJson(dump.toString());
+
+        // j1 is unchanged, j2 changed, j3 and j4 are new, j5 is no longer in the dump
+        assertEquals(List.of(2, 1, 1), batches);
+        verify(repository, times(3)).saveAll(anyIterable());
+        verify(repository, never()).save(any());
+        assertFalse(table.containsKey("j1"));
+        assertEquals("Journal 2 changed", table.get("j2").getTitle());
+        assertEquals(1000, table.get("j2").getCreated());
+        assertTrue(table.containsKey("j3"));
+        assertTrue(table.containsKey("j4"));
+        assertTrue(table.get("j5").getDeleted() > 0);
+    }
+
+    private static String payload(String id, String title) {
+        return "{\"id\":\"" + id + "\",\"last_updated\":\"2025-01-02T03:04:05Z\",\"bibjson\":{\"title\":\"" + title
+                + "\",\"pissn\":\"1234-5678\",\"apc\":{\"has_apc\":false},\"unknown\":[1,2]}}";
+    }
+
+    private static DoajJournalEntity journal(String id, String title) {
+        DoajJournalEntity journal = new DoajJournalEntity();
+        journal.setId(id);
+        journal.setTitle(title);
+        journal.setIssn("1234-5678");
+        journal.setApc_currency("");
+        journal.setCreated(1000);
+        return journal;
+    }
+
+    // the batch list is reused by the updater, so the saved journals are copied into the table
+    private DoajRepository repository() {
+        DoajRepository repository = mock(DoajRepository.class);
+        when(repository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<DoajJournalEntity> journals = invocation.getArgument(0);
+            int count = 0;
+            for (DoajJournalEntity journal : journals) {
+                table.put(journal.getId(), journal);
+                count++;
+            }
+            batches.add(count);
+            return journals;
+        });
+        return repository;
+    }
+}
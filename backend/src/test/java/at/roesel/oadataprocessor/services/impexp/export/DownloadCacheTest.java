@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownloadCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void fileIsKeptWhileItIsUsed() throws IOException {
+        DownloadService.BuildResult result = buildResult();
+        DownloadCache cache = new DownloadCache();
+        cache.put("key", result);
+
+        // a response uses the file, the cache is cleared meanwhile
+        assertTrue(result.acquire());
+        cache.clear();
+        assertTrue(Files.exists(result.file));
+
+        // the response is completed
+        result.release();
+        assertFalse(Files.exists(result.file));
+        assertFalse(result.acquire());
+    }
+
+    @Test
+    void fileIsDeletedWhenRemovedFromCache() throws IOException {
+        DownloadService.BuildResult result = buildResult();
+        DownloadCache cache = new DownloadCache();
+        cache.put("key", result);
+
+        cache.clear();
+        assertFalse(Files.exists(result.file));
+    }
+
+    private DownloadService.BuildResult buildResult() throws IOException {
+        DownloadService.BuildResult result = new DownloadService.BuildResult();
+        result.file = Files.writeString(tempDir.resolve("publications.csv"), "id\n1\n");
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExcelStreamingExporterTest {
+
+    public static class Row {
+        public String name;
+        public Integer value;
+
+        Row(String name, Integer value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    @Test
+    void rowsAreAddedOneByOne() throws IOException {
+        OutputDescriptor<Row> descriptor = new OutputDescriptor<>(Row.class, List.of("name", "value"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // more rows than are kept in memory
+        int count = 1000;
+        try (ExcelStreamingExporter<Row> exporter = new ExcelStreamingExporter<>(outputStream, descriptor)) {
+            for (int i = 0; i < count; i++) {
+                exporter.add(new Row("row " + i, i % 3 == 0 ? null : i));
+            }
+            exporter.finish();
+            assertEquals(count, exporter.getRowCount());
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("publications");
+            assertEquals(count, sheet.getLastRowNum());
+            assertEquals("name", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("row 0", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals("998", sheet.getRow(count - 1).getCell(1).getStringCellValue());
+        }
+    }
+}
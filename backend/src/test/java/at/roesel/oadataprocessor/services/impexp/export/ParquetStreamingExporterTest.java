@@ -0,0 +1,197 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import at.roesel.oadataprocessor.components.controller.PublicationSearchFilter;
+import at.roesel.oadataprocessor.model.coat.ClassificationOutput;
+import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParquetStreamingExporterTest {
+
+    public static class Row {
+        public String name;
+        public Integer value;
+        public long count;
+        public Boolean open;
+
+        Row(String name, Integer value, long count, Boolean open) {
+            this.name = name;
+            this.value = value;
+            this.count = count;
+            this.open = open;
+        }
+    }
+
+    private final OutputDescriptor<Row> descriptor = new OutputDescriptor<>(Row.class, List.of("name", "value", "count", "open"));
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void smallFile() throws IOException {
+        List<Row> rows = List.of(new Row("plain", 1, 10L, true), new Row("", null, 0L, null), new Row("Umlaut ä\nnewline", 3, 5000000000L, false));
+        Path file = export(descriptor, rows, ParquetStreamingExporter.defaultRowGroupSize);
+
+        MessageType schema = metaData(file).getFileMetaData().getSchema();
+        assertEquals(PrimitiveTypeName.BINARY, schema.getType("name").asPrimitiveType().getPrimitiveTypeName());
+        assertEquals(LogicalTypeAnnotation.stringType(), schema.getType("name").getLogicalTypeAnnotation());
+        assertEquals(PrimitiveTypeName.INT32, schema.getType("value").asPrimitiveType().getPrimitiveTypeName());
+        assertEquals(PrimitiveTypeName.INT64, schema.getType("count").asPrimitiveType().getPrimitiveTypeName());
+        assertEquals(PrimitiveTypeName.BOOLEAN, schema.getType("open").asPrimitiveType().getPrimitiveTypeName());
+
+        List<Group> records = read(file);
+        assertEquals(3, records.size());
+        assertEquals("plain", records.get(0).getString("name", 0));
+        assertEquals(1, records.get(0).getInteger("value", 0));
+        assertEquals(10L, records.get(0).getLong("count", 0));
+        assertTrue(records.get(0).getBoolean("open", 0));
+        assertEquals(0, records.get(1).getFieldRepetitionCount("name"));
+        assertEquals(0, records.get(1).getFieldRepetitionCount("value"));
+        assertEquals(0, records.get(1).getFieldRepetitionCount("open"));
+        assertEquals("Umlaut ä\nnewline", records.get(2).getString("name", 0));
+        assertEquals(5000000000L, records.get(2).getLong("count", 0));
+        assertFalse(records.get(2).getBoolean("open", 0));
+    }
+
+    @Test
+    void severalRowGroups() throws IOException {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            rows.add(new Row(i % 7 == 0 ? null : "publication title number " + i, i, i, i % 2 == 0));
+        }
+        Path file = export(descriptor, rows, 512 * 1024);
+
+        ParquetMetadata metaData = metaData(file);
+        assertTrue(metaData.getBlocks().size() > 1);
+        assertEquals(100000L, metaData.getBlocks().stream().mapToLong(block -> block.getRowCount()).sum());
+
+        List<Group> records = read(file);
+        assertEquals(100000, records.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Group record = records.get(i);
+            if (rows.get(i).name == null) {
+                assertEquals(0, record.getFieldRepetitionCount("name"));
+            } else {
+                assertEquals(rows.get(i).name, record.getString("name", 0));
+            }
+            assertEquals(i, record.getInteger("value", 0));
+        }
+    }
+
+    @Test
+    void publicationNumbersAsTypedColumns() throws IOException {
+        PublicationSearchFilter.ExcelDownloadOptions options = new PublicationSearchFilter.ExcelDownloadOptions();
+        options.includeMetaSources = true;
+        PublicationOutputDescriptor publicationDescriptor = new PublicationOutputDescriptor(options);
+        ClassificationOutput output = new ClassificationOutput();
+        output.doi = "10.1000/1";
+        output.year = 2024;
+        output.costs = "1234,50";
+        output.costsSource = "OpenAPC";
+        output.embargoTime = "6";
+        ClassificationOutput outputWithoutCosts = new ClassificationOutput();
+        outputWithoutCosts.year = 2023;
+        outputWithoutCosts.costs = "";
+        outputWithoutCosts.embargoTime = "?";
+        Path file = export(publicationDescriptor, List.of(output, outputWithoutCosts), ParquetStreamingExporter.defaultRowGroupSize);
+
+        MessageType schema = metaData(file).getFileMetaData().getSchema();
+        assertEquals(PrimitiveTypeName.INT32, schema.getType("year").asPrimitiveType().getPrimitiveTypeName());
+        assertEquals(PrimitiveTypeName.DOUBLE, schema.getType("costs").asPrimitiveType().getPrimitiveTypeName());
+        assertEquals(PrimitiveTypeName.INT32, schema.getType("embargo.time").asPrimitiveType().getPrimitiveTypeName());
+        assertEquals(PrimitiveTypeName.BINARY, schema.getType("costs.source").asPrimitiveType().getPrimitiveTypeName());
+
+        List<Group> records = read(file);
+        assertEquals("10.1000/1", records.get(0).getString("doi", 0));
+        assertEquals(2024, records.get(0).getInteger("year", 0));
+        assertEquals(1234.5, records.get(0).getDouble("costs", 0));
+        assertEquals(6, records.get(0).getInteger("embargo.time", 0));
+        assertEquals("OpenAPC", records.get(0).getString("costs.source", 0));
+        assertEquals(2023, records.get(1).getInteger("year", 0));
+        assertEquals(0, records.get(1).getFieldRepetitionCount("costs"));
+        assertEquals(0, records.get(1).getFieldRepetitionCount("embargo.time"));
+    }
+
+    private <T> Path export(OutputDescriptor<T> outputDescriptor, List<T> rows, long rowGroupSize) throws IOException {
+        Path file = folder.resolve("export.parquet");
+        try (OutputStream outputStream = Files.newOutputStream(file);
+             StreamingExporter<T> exporter = new ParquetStreamingExporter<>(outputStream, outputDescriptor, rowGroupSize)) {
+            for (T row : rows) {
+                exporter.add(row);
+            }
+            exporter.finish();
+            assertEquals(rows.size(), exporter.getRowCount());
+        }
+        return file;
+    }
+
+    private static ParquetMetadata metaData(Path file) throws IOException {
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file))) {
+            return reader.getFooter();
+        }
+    }
+
+    private static List<Group> read(Path file) throws IOException {
+        List<Group> records = new ArrayList<>();
+        try (ParquetReader<Group> reader = new GroupReaderBuilder(file).build()) {
+            Group record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static class GroupReaderBuilder extends ParquetReader.Builder<Group> {
+        GroupReaderBuilder(Path file) {
+            super(new LocalInputFile(file), new PlainParquetConfiguration());
+        }
+
+        @Override
+        protected ReadSupport<Group> getReadSupport() {
+            return new GroupReadSupport();
+        }
+    }
+}
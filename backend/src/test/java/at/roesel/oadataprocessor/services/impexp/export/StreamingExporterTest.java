@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.impexp.export;
+
+import at.roesel.oadataprocessor.services.impexp.OutputDescriptor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingExporterTest {
+
+    public static class Row {
+        public String name;
+        public Integer value;
+
+        Row(String name, Integer value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private final OutputDescriptor<Row> descriptor = new OutputDescriptor<>(Row.class, List.of("name", "value"));
+    private final List<Row> rows = List.of(new Row("plain", 1), new Row("with \"quote\", comma", null), new Row("Umlaut ä\nnewline", 3));
+
+    @Test
+    void csv() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (StreamingExporter<Row> exporter = new CsvStreamingExporter<>(outputStream, descriptor)) {
+            write(exporter);
+        }
+        String expected = "name,value\r\n" +
+                "plain,1\r\n" +
+                "\"with \"\"quote\"\", comma\",\r\n" +
+                "\"Umlaut ä\nnewline\",3\r\n";
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjson() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (StreamingExporter<Row> exporter = new NdjsonStreamingExporter<>(outputStream, descriptor)) {
+            write(exporter);
+        }
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n", -1);
+        // one object per line and a final line feed
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("with \"quote\", comma", second.get("name").asText());
+        assertEquals("", second.get("value").asText());
+        assertEquals("Umlaut ä\nnewline", objectMapper.readTree(lines[2]).get("name").asText());
+    }
+
+    private void write(StreamingExporter<Row> exporter) throws IOException {
+        for (Row row : rows) {
+            exporter.add(row);
+        }
+        exporter.finish();
+        assertEquals(rows.size(), exporter.getRowCount());
+    }
+}
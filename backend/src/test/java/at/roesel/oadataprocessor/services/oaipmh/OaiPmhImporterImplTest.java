@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.oaipmh;
+
+import at.roesel.oadataprocessor.model.oaipmh.jabx.HeaderType;
+import at.roesel.oadataprocessor.model.oaipmh.jabx.IdentifyType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OaiPmhImporterImplTest {
+
+    private final static String oaiStart = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<OAI-PMH xmlns=\"http://www.openarchives.org/OAI/2.0/\">\n" +
+            "<responseDate>2024-01-01T00:00:00Z</responseDate>\n";
+    private final static String oaiEnd = "</OAI-PMH>\n";
+
+    private HttpServer server;
+    private String url;
+
+    // local stub of an OAI-PMH endpoint with two pages of identifiers
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/oai", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String body;
+            if (query.contains("verb=Identify")) {
+                body = oaiStart + "<request verb=\"Identify\">" + url + "</request>\n" +
+                        "<Identify><repositoryName>Test\u0001Repository</repositoryName><baseURL>" + url + "</baseURL>" +
+                        "<protocolVersion>2.0</protocolVersion><adminEmail>test@nowhere.xyz</adminEmail>" +
+                        "<earliestDatestamp>2000-01-01</earliestDatestamp><deletedRecord>no</deletedRecord>" +
+                        "<granularity>YYYY-MM-DD</granularity></Identify>\n" + oaiEnd;
+            } else if (query.contains("resumptionToken=page2")) {
+                body = oaiStart + "<request verb=\"ListIdentifiers\">" + url + "</request>\n" +
+                        "<ListIdentifiers>" + header("oai:test:3") +
+                        "<resumptionToken/></ListIdentifiers>\n" + oaiEnd;
+            } else {
+                body = oaiStart + "<request verb=\"ListIdentifiers\">" + url + "</request>\n" +
+                        "<ListIdentifiers>" + header("oai:test:1") + header("oai:test:\u00022") +
+                        "<resumptionToken>page2</resumptionToken></ListIdentifiers>\n" + oaiEnd;
+            }
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/xml");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/oai";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static String header(String identifier) {
+        return "<header><identifier>" + identifier + "</identifier><datestamp>2024-01-01</datestamp></header>";
+    }
+
+    @Test
+    void identify() {
+        OaiPmhImporterImpl importer = new OaiPmhImporterImpl(url);
+        IdentifyType identify = importer.identify();
+        assertEquals("TestRepository", identify.getRepositoryName());
+        assertEquals(url, identify.getBaseURL());
+    }
+
+    @Test
+    void listIdentifiers() {
+        OaiPmhImporterImpl importer = new OaiPmhImporterImpl(url);
+        List<HeaderType> headers = importer.listIdentifiers(null);
+        assertEquals(3, headers.size());
+        assertEquals("oai:test:1", headers.get(0).getIdentifier());
+        assertEquals("oai:test:2", headers.get(1).getIdentifier());
+        assertEquals("oai:test:3", headers.get(2).getIdentifier());
+    }
+
+    @Test
+    void invalidXmlCharsAreRemoved() throws IOException {
+        Reader reader = new InvalidXmlCharFilterReader(new StringReader("a\u0001b\u0008c\td\uFFFEe\uD83D\uDE00"));
+        char[] buffer = new char[3];
+        StringBuilder sb = new StringBuilder();
+        int count;
+        while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+            sb.append(buffer, 0, count);
+        }
+        assertEquals("abc\tde", sb.toString());
+        assertTrue(((InvalidXmlCharFilterReader) reader).isCharsRemoved());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.openalex;
+
+import at.roesel.oadataprocessor.model.OpenAlexSource;
+import at.roesel.oadataprocessor.model.SourceStatus;
+import at.roesel.oadataprocessor.model.openalex.OpenAlexWork;
+import at.roesel.oadataprocessor.persistance.OpenAlexRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class OpenAlexBatchLookupTest {
+
+    // the stub server knows all DOIs except this one
+    private static final String unknownDoi = "10.1000/unknown";
+
+    private HttpServer server;
+    private String url;
+    private final List<List<String>> requestedDois = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, OpenAlexSource> table = new HashMap<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String filter = query.substring(query.indexOf("filter=doi:") + 11, query.indexOf('&'));
+            List<String> dois = List.of(filter.split("\\|"));
+            requestedDois.add(dois);
+            StringBuilder results = new StringBuilder();
+            for (String doi : dois) {
+                if (doi.equals(unknownDoi)) {
+                    continue;
+                }
+                if (results.length() > 0) {
+                    results.append(',');
+                }
+                results.append(String.format("{\"id\":\"https://openalex.org/W%d\",\"doi\":\"https://doi.org/%s\",\"title\":\"Title %s\"}",
+                        Math.abs(doi.hashCode()), doi.toLowerCase(Locale.ROOT), doi));
+            }
+            byte[] response = String.format("{\"meta\":{\"count\":%d},\"results\":[%s]}", dois.size(), results)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void worksByDoi() {
+        OpenAlexClient client = new OpenAlexClient(null, null, url);
+        List<OpenAlexWork> works = client.worksByDoi(List.of("10.1000/a", "10.1000/b", unknownDoi));
+        assertEquals(1, requestedDois.size());
+        assertEquals(2, works.size());
+        assertEquals("https://doi.org/10.1000/a", works.get(0).doi);
+    }
+
+    @Test
+    void getWorksInGroups() {
+        OpenAlexRepository repository = repository();
+        OpenAlexServiceImpl service = new OpenAlexServiceImpl(new OpenAlexClient(null, null, url), repository, 2);
+        List<String> dois = List.of("10.1000/a", "10.1000/B", unknownDoi, "10.1000/c", "10.1000/d", "10.1000/a");
+
+        Map<String, OpenAlexWork> works = service.getWorks(dois);
+
+        // 5 distinct DOIs in groups of 2
+        assertEquals(List.of(List.of("10.1000/a", "10.1000/B"), List.of(unknownDoi, "10.1000/c"), List.of("10.1000/d")),
+                requestedDois);
+        assertEquals(4, works.size());
+        assertEquals("Title 10.1000/B", works.get("10.1000/B").title);
+        assertNull(works.get(unknownDoi));
+
+        // every DOI is stored, also the unknown one
+        verify(repository, times(5)).save(any(OpenAlexSource.class));
+        assertEquals(5, table.size());
+        assertEquals(SourceStatus.NOT_FOUND, table.get(unknownDoi).getStatus());
+        assertEquals(SourceStatus.OK, table.get("10.1000/c").getStatus());
+
+        // the second call is answered from the table
+        requestedDois.clear();
+        assertEquals(4, service.getWorks(dois).size());
+        assertTrue(requestedDois.isEmpty());
+        verify(repository, times(5)).save(any(OpenAlexSource.class));
+    }
+
+    @Test
+    void doisWithFilterCharactersAreNotBatched() {
+        assertTrue(OpenAlexServiceImpl.isBatchable("10.1000/abc-(1)"));
+        assertFalse(OpenAlexServiceImpl.isBatchable("10.1000/a,b"));
+        assertFalse(OpenAlexServiceImpl.isBatchable("10.1000/a|b"));
+        assertFalse(OpenAlexServiceImpl.isBatchable("10.1000/a&b"));
+    }
+
+    // repository backed by the map table
+    private OpenAlexRepository repository() {
+        OpenAlexRepository repository = mock(OpenAlexRepository.class);
+        when(repository.save(any(OpenAlexSource.class))).thenAnswer(invocation -> {
+            OpenAlexSource source = invocation.getArgument(0);
+            source.setCreated(System.currentTimeMillis());
+            table.put(source.getDoi(), source);
+            return source;
+        });
+        when(repository.findAllByDoiIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> dois = invocation.getArgument(0);
+            return table.values().stream()
+                    .filter(source -> dois.stream().anyMatch(doi -> doi.equalsIgnoreCase(source.getDoi())))
+                    .toList();
+        });
+        return repository;
+    }
+}
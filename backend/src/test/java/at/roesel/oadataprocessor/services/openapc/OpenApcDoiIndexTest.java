@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.openapc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenApcDoiIndexTest {
+
+    @Test
+    void contains() {
+        OpenApcDoiIndex index = OpenApcDoiIndex.build(Arrays.asList("10.1000/ABC", "10.1000/def", "10.1000/abc", null, ""));
+        // duplicates and empty DOIs are removed
+        assertEquals(2, index.size());
+
+        assertTrue(index.contains("10.1000/abc"));
+        assertTrue(index.contains("10.1000/Abc"));
+        assertTrue(index.contains(" 10.1000/DEF "));
+        assertFalse(index.contains("10.1000/ab"));
+        assertFalse(index.contains("10.1000/xyz"));
+        assertFalse(index.contains(null));
+    }
+
+    @Test
+    void emptyIndex() {
+        OpenApcDoiIndex index = OpenApcDoiIndex.build(List.of());
+        assertEquals(0, index.size());
+        assertFalse(index.contains("10.1000/abc"));
+    }
+}
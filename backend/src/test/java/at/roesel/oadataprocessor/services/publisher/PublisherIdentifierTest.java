@@ -24,10 +24,13 @@ package at.roesel.oadataprocessor.services.publisher;
 
 import at.roesel.oadataprocessor.model.Journal;
 import at.roesel.oadataprocessor.model.Publisher;
+import me.xdrop.fuzzywuzzy.FuzzySearch;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,4 +83,122 @@ class PublisherIdentifierTest {
         assertEquals(nameParts.get(0), "Duncker");
         assertEquals(nameParts.get(1), "Humblot");
     }
+
+    @Test
+    void findPublisherByName() {
+        List<Publisher> publishers = generatePublishers(3000);
+        PublisherIdentifier identifier = new PublisherIdentifier(publisherSource(publishers));
+
+        Random random = new Random(4711);
+        List<String> searchNames = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Publisher publisher = publishers.get(random.nextInt(publishers.size()));
+            searchNames.add(mutate(publisher.getName().toLowerCase(), random));
+        }
+        searchNames.add("");
+        searchNames.add("x");
+
+        List<List<PublisherResult>> expected = new ArrayList<>();
+        for (String searchName : searchNames) {
+            expected.add(findPublisherByNameLinear(publishers, searchName));
+        }
+
+        List<List<PublisherResult>> actual = new ArrayList<>();
+        for (String searchName : searchNames) {
+            actual.add(identifier.findPublisherByName(searchName));
+        }
+
+        int matches = 0;
+        for (int i = 0; i < searchNames.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString(), searchNames.get(i));
+            matches += expected.get(i).size();
+        }
+        assertTrue(matches > 0);
+    }
+
+    // the comparison of all publisher names before the introduction of PublisherNameIndex
+    private List<PublisherResult> findPublisherByNameLinear(List<Publisher> allPublishers, String searchName) {
+        List<PublisherResult> publishers = new ArrayList<>();
+        for (Publisher publisher : allPublishers) {
+            int ratio = FuzzySearch.ratio(publisher.getName().toLowerCase(), searchName);
+            if (ratio > 80) {
+                publishers.add(new PublisherResult(publisher, ratio));
+            } else {
+                for (String name : publisher.getAlternateNames()) {
+                    ratio = FuzzySearch.ratio(name.toLowerCase(), searchName);
+                    if (ratio == 100) {
+                        publishers.add(new PublisherResult(publisher, ratio));
+                    } else if (ratio > 80) {
+                        publishers.add(new PublisherResult(publisher, ratio));
+                        break;
+                    }
+                }
+            }
+        }
+        return publishers;
+    }
+
+    private List<Publisher> generatePublishers(int count) {
+        String[] words = {"Springer", "Nature", "Elsevier", "Wiley", "Blackwell", "Oxford", "Cambridge", "University",
+                "Press", "Publishing", "Group", "Society", "American", "Chemical", "Physical", "Royal", "Institute",
+                "Medical", "Science", "Taylor", "Francis", "Academic", "Verlag", "Wissenschaft", "Karger", "Thieme",
+                "Hogrefe", "Frontiers", "Media", "MDPI", "Sage", "Emerald", "Brill", "Walter", "de", "Gruyter"};
+        Random random = new Random(42);
+        List<Publisher> publishers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Publisher publisher = new Publisher(String.valueOf(i), randomName(words, random));
+            if (random.nextInt(3) == 0) {
+                publisher.setAlias(randomName(words, random) + Publisher.nameDelimiter
+                        + mutate(publisher.getName(), random));
+            }
+            publishers.add(publisher);
+        }
+        return publishers;
+    }
+
+    private String randomName(String[] words, Random random) {
+        int count = 1 + random.nextInt(4);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(words[random.nextInt(words.length)]);
+        }
+        return sb.toString();
+    }
+
+    // replaces, deletes or inserts a few characters
+    private String mutate(String name, Random random) {
+        StringBuilder sb = new StringBuilder(name);
+        int changes = random.nextInt(4);
+        for (int i = 0; i < changes && sb.length() > 1; i++) {
+            int pos = random.nextInt(sb.length());
+            switch (random.nextInt(3)) {
+                case 0 -> sb.setCharAt(pos, (char) ('a' + random.nextInt(26)));
+                case 1 -> sb.deleteCharAt(pos);
+                default -> sb.insert(pos, (char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private PublisherSource publisherSource(List<Publisher> publishers) {
+        return new PublisherSource() {
+            @Override
+            public Iterable<Publisher> readPublishers() {
+                return publishers;
+            }
+
+            @Override
+            public List<Journal> readJournals() {
+                return List.of();
+            }
+
+            @Override
+            public Journal searchJournal(List<String> issns) {
+                return null;
+            }
+        };
+    }
 }
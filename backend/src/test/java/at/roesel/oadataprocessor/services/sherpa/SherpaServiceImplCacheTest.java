@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.sherpa;
+
+import at.roesel.oadataprocessor.model.SourceStatus;
+import at.roesel.oadataprocessor.model.sherpa.Romeo;
+import at.roesel.oadataprocessor.model.sherpa.RomeoSource;
+import at.roesel.oadataprocessor.persistance.RomeoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SherpaServiceImplCacheTest {
+
+    private final Map<String, RomeoSource> table = new HashMap<>();
+
+    @Test
+    void romeoForJournals() {
+        Romeo romeo = new Romeo();
+        table.put("1111-1111", new RomeoSource("1111-1111", romeo));
+        RomeoSource notFound = new RomeoSource("2222-2222", null);
+        notFound.setStatus(SourceStatus.NOT_FOUND.getCode());
+        table.put("2222-2222", notFound);
+
+        RomeoRepository repository = repository();
+        SherpaServiceImpl service = new SherpaServiceImpl(null, repository, null, 100);
+        // the first issn of the journal has a record, Sherpa is not queried for the second one
+        Map<String, Romeo> result = service.romeoForJournals(List.of(List.of("1111-1111", "3333-3333"), List.of("2222-2222")));
+
+        verify(repository).findAllById(anyIterable());
+        verifyNoMoreInteractions(repository);
+        assertSame(romeo, result.get("1111-1111"));
+        assertSame(romeo, result.get("3333-3333"));
+        assertFalse(result.containsKey("2222-2222"));
+
+        // the records and the missing record are cached
+        assertSame(romeo, service.romeoForIssn("1111-1111"));
+        assertNull(service.romeoForIssn("2222-2222"));
+        verifyNoMoreInteractions(repository);
+
+        service.clearCache();
+        assertSame(romeo, service.romeoForIssn("1111-1111"));
+        verify(repository).findById("1111-1111");
+        verifyNoMoreInteractions(repository);
+    }
+
+    // repository backed by the map table
+    private RomeoRepository repository() {
+        RomeoRepository repository = mock(RomeoRepository.class);
+        when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<RomeoSource> sources = new ArrayList<>();
+            for (String issn : invocation.<Iterable<String>>getArgument(0)) {
+                if (table.containsKey(issn)) {
+                    sources.add(table.get(issn));
+                }
+            }
+            return sources;
+        });
+        return repository;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2025 Dr. Martin Rösel <opensource@roesel.at>
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+
+
+package at.roesel.oadataprocessor.services.wikidata;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WikidataBatchQueryTest {
+
+    private final static Map<String, String> journals = Map.of(
+            "1234-5678", "Q100",
+            "2345-6789", "Q200");
+
+    private final static Map<String, String> modified = Map.of(
+            "Q100", "2024-03-01T10:15:30Z",
+            "Q200", "2025-01-02T00:00:00Z");
+
+    private HttpServer server;
+    private String url;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    // local stub SPARQL endpoint, answers the VALUES queries for ISSNs and for modification dates
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/sparql", exchange -> {
+            String query = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            queries.add(query);
+            byte[] response = answer(query).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/sparql-results+json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/sparql";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void issnsAreQueriedInChunks() {
+        WikidataServiceImpl service = new WikidataServiceImpl(new WikidataClient("test@nowhere.xyz", null, url), 2);
+
+        Map<String, String> result = service.searchJournalIds(List.of("1234-5678", "0000-0000", "2345-6789"));
+
+        assertEquals(Map.of("1234-5678", "Q100", "2345-6789", "Q200"), result);
+        assertEquals(2, queries.size());
+        assertTrue(queries.get(0).contains("VALUES ?issn { \"1234-5678\" \"0000-0000\" }"), queries.get(0));
+        assertTrue(queries.get(1).contains("VALUES ?issn { \"2345-6789\" }"), queries.get(1));
+    }
+
+    @Test
+    void resultsAreCached() {
+        WikidataServiceImpl service = new WikidataServiceImpl(new WikidataClient("test@nowhere.xyz", null, url), 50);
+
+        service.searchJournalIds(List.of("1234-5678", "0000-0000"));
+        Map<String, String> result = service.searchJournalIds(List.of("0000-0000", "1234-5678"));
+
+        assertEquals(Map.of("1234-5678", "Q100"), result);
+        // ISSNs without journal are cached too
+        assertEquals(1, queries.size());
+
+        service.searchJournalIds(List.of("1234-5678", "2345-6789"));
+        assertEquals(2, queries.size());
+        assertTrue(queries.get(1).contains("VALUES ?issn { \"2345-6789\" }"), queries.get(1));
+    }
+
+    @Test
+    void modificationTimes() {
+        WikidataServiceImpl service = new WikidataServiceImpl(new WikidataClient("test@nowhere.xyz", null, url), 50);
+
+        Map<String, Long> result = service.modificationTimes(List.of("Q100", "Q200", "Q300", "invalid"));
+
+        assertEquals(2, result.size());
+        assertEquals(1709288130000L, result.get("Q100"));
+        assertEquals(1735776000000L, result.get("Q200"));
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0).contains("VALUES ?item { wd:Q100 wd:Q200 wd:Q300 }"), queries.get(0));
+    }
+
+    @Test
+    void sparqlString() {
+        assertEquals("\"1234-5678\"", WikidataServiceImpl.sparqlString("1234-5678"));
+        assertEquals("\"a\\\"b\\\\c\"", WikidataServiceImpl.sparqlString("a\"b\\c"));
+    }
+
+    private String answer(String query) {
+        StringBuilder bindings = new StringBuilder();
+        if (query.contains("?issn")) {
+            Matcher matcher = Pattern.compile("\"([^\"]+)\"").matcher(query);
+            while (matcher.find()) {
+                String wikidataId = journals.get(matcher.group(1));
+                if (wikidataId != null) {
+                    appendBinding(bindings, String.format(
+                            "{\"item\":{\"type\":\"uri\",\"value\":\"http://www.wikidata.org/entity/%s\"},\"issn\":{\"type\":\"literal\",\"value\":\"%s\"}}",
+                            wikidataId, matcher.group(1)));
+                }
+            }
+        } else {
+            Matcher matcher = Pattern.compile("wd:(Q\\d+)").matcher(query);
+            while (matcher.find()) {
+                String date = modified.get(matcher.group(1));
+                if (date != null) {
+                    appendBinding(bindings, String.format(
+                            "{\"item\":{\"type\":\"uri\",\"value\":\"http://www.wikidata.org/entity/%s\"},\"date\":{\"datatype\":\"http://www.w3.org/2001/XMLSchema#dateTime\",\"type\":\"literal\",\"value\":\"%s\"}}",
+                            matcher.group(1), date));
+                }
+            }
+        }
+        return "{\"head\":{\"vars\":[\"item\"]},\"results\":{\"bindings\":[" + bindings + "]}}";
+    }
+
+    private static void appendBinding(StringBuilder bindings, String binding) {
+        if (!bindings.isEmpty()) {
+            bindings.append(",");
+        }
+        bindings.append(binding);
+    }
+}
@@ -22,7 +22,6 @@
 
 package at.roesel.oadataprocessor.services.wikidata;
 
-import at.roesel.oadataprocessor.config.AppSettings;
 import at.roesel.oadataprocessor.model.wikidata.WikidataJsonPublisher;
 import at.roesel.oadataprocessor.services.PublisherService;
 import org.junit.jupiter.api.Tag;
@@ -33,9 +32,6 @@ import org.springframework.boot.test.context.SpringBootTest;
 @SpringBootTest
 class WikidataPublisherImporterTest {
 
-    @Autowired
-    private AppSettings appSettings;
-
     @Autowired
     private WikidataServiceImpl wikidataService;
 
@@ -45,7 +41,7 @@ class WikidataPublisherImporterTest {
     @Test
     @Tag("manual")
     void updatePublisherFromWikidata() {
-        WikidataPublisherImporter importer = new WikidataPublisherImporter(appSettings, publisherService, wikidataService::fetchPublisher);
+        WikidataPublisherImporter importer = new WikidataPublisherImporter(publisherService, wikidataService::fetchPublishers, wikidataService::fetchPublisher);
 
         WikidataJsonPublisher jsonPublisher = new WikidataJsonPublisher();
         jsonPublisher.publisher = "Q2510139";
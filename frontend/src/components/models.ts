@@ -255,6 +255,7 @@ export interface ExcelDownloadOptions {
   includeNativeIds: boolean
   includeAuthor: boolean
   multipleRows: boolean // Output has one row for every publication for every connected institution
+  format?: string // xlsx (default), csv, ndjson or parquet
 }
 
 export interface PublicationFilter {
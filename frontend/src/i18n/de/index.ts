@@ -183,6 +183,8 @@ export default {
   tt_authors: 'Angabe der Autor:innen',
 
   optional_fields: 'Optionale Angaben',
+  file_format: 'Dateiformat',
+  tt_file_format: 'CSV und NDJSON (ein JSON-Objekt pro Zeile) werden schneller erstellt und sind in Skripten leichter zu verarbeiten, Parquet ist für Analysewerkzeuge wie pandas oder DuckDB gedacht',
 
   publisher: 'Verlag',
   publishers: 'Verlage',
@@ -180,6 +180,8 @@ export default {
   tt_authors: 'Output of the authors',
 
   optional_fields: 'Optional information',
+  file_format: 'File format',
+  tt_file_format: 'CSV and NDJSON (one JSON object per line) are faster to create and easier to process in scripts, Parquet is meant for analytics tools like pandas or DuckDB',
 
   publisher: 'Publisher',
   publishers: 'Publishers',
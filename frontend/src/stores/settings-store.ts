@@ -40,6 +40,7 @@ export const useSettingsStore = defineStore('settings', {
       includeMetaSources: false,
       includeAuthor: false,
       multipleRows: true,
+      format: 'xlsx',
     } as ExcelDownloadOptions
   }),
   getters: {